@@ -0,0 +1,88 @@
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.enums.SupportedCurrency;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.checkout.payment.gateway.repository.PaymentsRepository;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Fills a store with synthetic payments and reports the retained heap per payment and the GC work
+ * done while filling it. "map" is the previous ConcurrentHashMap of response objects, "packed" is
+ * {@link PaymentsRepository}. Run through loadtest/repository-footprint.sh.
+ */
+public class RepositoryFootprint {
+
+  public static void main(String[] args) throws IOException {
+    String store = args[0];
+    int payments = Integer.parseInt(args[1]);
+    Path results = Path.of(args[2]);
+
+    Map<UUID, PostPaymentResponse> map = new ConcurrentHashMap<>();
+    PaymentsRepository repository = new PaymentsRepository();
+    Consumer<PostPaymentResponse> add = switch (store) {
+      case "map" -> payment -> map.put(payment.getId(), payment);
+      case "packed" -> repository::add;
+      default -> throw new IllegalArgumentException("Unknown store " + store);
+    };
+
+    long heapBefore = usedHeapAfterGc();
+    long gcCountBefore = gcCount();
+    long gcMillisBefore = gcMillis();
+    long start = System.nanoTime();
+    for (int i = 0; i < payments; i++) {
+      add.accept(payment(i));
+    }
+    long fillMillis = (System.nanoTime() - start) / 1_000_000;
+    long gcCount = gcCount() - gcCountBefore;
+    long gcMillis = gcMillis() - gcMillisBefore;
+    long bytesPerPayment = (usedHeapAfterGc() - heapBefore) / payments;
+
+    // Keep both stores reachable until the heap has been measured.
+    System.out.printf("%s: %d payments, %d bytes/payment, %d ms fill, %d GCs, %d ms GC%n",
+        store, map.size() + repository.size(), bytesPerPayment, fillMillis, gcCount, gcMillis);
+    Files.writeString(results, String.join(",", Instant.now().toString(), store,
+        System.getProperty("java.version"), String.valueOf(payments),
+        String.valueOf(bytesPerPayment), String.valueOf(fillMillis), String.valueOf(gcCount),
+        String.valueOf(gcMillis)) + "\n", StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+  }
+
+  private static PostPaymentResponse payment(int i) {
+    PostPaymentResponse payment = new PostPaymentResponse();
+    payment.setId(UUID.randomUUID());
+    payment.setStatus(PaymentStatus.values()[i % 3]);
+    payment.setCardNumberLastFour(String.format("%04d", i % 10_000));
+    payment.setExpiryMonth(1 + i % 12);
+    payment.setExpiryYear(2030 + i % 10);
+    payment.setCurrency(SupportedCurrency.values()[i % 3].name());
+    payment.setAmount(100 + i);
+    payment.setAcquirer(i % 2 == 0 ? "primary" : "secondary");
+    return payment;
+  }
+
+  private static long usedHeapAfterGc() {
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    Runtime runtime = Runtime.getRuntime();
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+  private static long gcCount() {
+    return ManagementFactory.getGarbageCollectorMXBeans().stream()
+        .mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+  }
+
+  private static long gcMillis() {
+    return ManagementFactory.getGarbageCollectorMXBeans().stream()
+        .mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+  }
+}
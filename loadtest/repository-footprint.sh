@@ -0,0 +1,21 @@
+#!/usr/bin/env bash
+# Measures the heap retained per stored payment and the GC work done while storing them, for the
+# previous object-per-payment map and the packed PaymentsRepository, and appends the results to
+# loadtest/results/repository-footprint.csv. Each store runs in a fresh JVM.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+RESULTS=loadtest/results/repository-footprint.csv
+PAYMENTS=${PAYMENTS:-10000000}
+HEAP=${HEAP:-8g}
+
+./gradlew -q compileJava
+
+# No -Xms: with the whole heap committed up front, the used heap read before filling is inflated
+# by garbage the collector does not reclaim, and the per-payment figure comes out too low.
+for store in map packed; do
+  java -Xmx"$HEAP" -cp build/classes/java/main \
+    loadtest/RepositoryFootprint.java "$store" "$PAYMENTS" "$RESULTS"
+done
+
+column -s, -t < "$RESULTS"
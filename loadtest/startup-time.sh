@@ -0,0 +1,32 @@
+#!/usr/bin/env bash
+# Measures startup time of the payment gateway in each startup mode and appends the results to
+# loadtest/results/startup-time.csv. Each mode is started with startup.training-run=true, so the
+# application exits as soon as it is ready.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+RESULTS=loadtest/results/startup-time.csv
+RUNS=${RUNS:-5}
+# The prod profile refuses to start without a webhook signing secret; no webhook is sent here.
+export WEBHOOK_SIGNING_SECRET=${WEBHOOK_SIGNING_SECRET:-startup-time-measurement}
+
+measure() {
+  local mode=$1
+  shift
+  for _ in $(seq "$RUNS"); do
+    local line
+    line=$("$@" 2>&1 | grep -m1 'Started PaymentGatewayApplication in')
+    # e.g. "Started PaymentGatewayApplication in 1.234 seconds (process running for 1.567)"
+    local started process
+    started=$(sed -E 's/.* in ([0-9.]+) seconds.*/\1/' <<< "$line")
+    process=$(sed -E 's/.*process running for ([0-9.]+).*/\1/' <<< "$line")
+    echo "$(date -u +%Y-%m-%dT%H:%M:%SZ),$mode,$(java -version 2>&1 | head -1 | cut -d'"' -f2),$started,$process" >> "$RESULTS"
+  done
+}
+
+./gradlew -q cdsJar cdsTrainingRun
+
+measure default ./gradlew -q bootRun --args='--spring.profiles.active=prod --startup.training-run=true'
+measure aot-cds ./gradlew -q bootRunCds --args='--spring.profiles.active=prod --startup.training-run=true'
+
+column -s, -t < "$RESULTS"
@@ -1,41 +1,212 @@
 package com.checkout.payment.gateway.client;
 
-import org.springframework.beans.factory.annotation.Value;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.hc.client5.http.ConnectTimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import com.checkout.payment.gateway.exception.BankOutcomeUnknownException;
+import com.checkout.payment.gateway.exception.CardNotAcceptedException;
 import com.checkout.payment.gateway.exception.BankServiceException;
+import com.checkout.payment.gateway.jfr.PaymentStageEvent;
 import com.checkout.payment.gateway.model.BankPaymentRequest;
 import com.checkout.payment.gateway.model.BankPaymentResponse;
+import com.checkout.payment.gateway.routing.Acquirer;
+import com.checkout.payment.gateway.routing.AcquirerRoute;
+import com.checkout.payment.gateway.routing.AcquirerRouter;
+import com.checkout.payment.gateway.warmup.WarmupContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 @Component
 public class BankClient {
+    private static final Logger LOG = LoggerFactory.getLogger(BankClient.class);
     private static final String PAYMENT_API_PATH = "/payments";
+    /** Carries the gateway payment ID, so that a repeated request is not authorized twice. */
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final byte[] DRY_RUN_AUTHORIZED = "{\"authorized\":true,\"authorization_code\":\"dry-run\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] DRY_RUN_DECLINED = "{\"authorized\":false,\"authorization_code\":\"\"}".getBytes(StandardCharsets.UTF_8);
     
     private final RestTemplate restTemplate;
-    private final String bankUrl;
+    private final AcquirerRouter router;
+    private final WarmupContext warmupContext;
+    private final ObjectMapper objectMapper;
 
-    public BankClient(RestTemplate restTemplate, @Value("${bank.simulator.url}") String bankUrl) {
+    public BankClient(RestTemplate restTemplate, AcquirerRouter router, WarmupContext warmupContext,
+                      ObjectMapper objectMapper) {
         this.restTemplate = restTemplate;
-        this.bankUrl = bankUrl;
+        this.router = router;
+        this.warmupContext = warmupContext;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @throws CardNotAcceptedException if no acquirer accepts the card
+     */
+    public void checkAccepted(String cardNumber) {
+        if (router.route(cardNumber).size() == 0) {
+            throw new CardNotAcceptedException("No acquirer accepts the card");
+        }
     }
 
+    /**
+     * @throws CardNotAcceptedException if no acquirer accepts the card
+     */
     public BankPaymentResponse processPayment(BankPaymentRequest request) {
+        AcquirerRoute route = router.route(request.getCardNumber());
+        if (route.size() == 0) {
+            throw new CardNotAcceptedException("No acquirer accepts the card");
+        }
+        if (warmupContext.isActive()) {
+            return dryRun(request, route.get(0));
+        }
+
+        BankServiceException failure = null;
+        for (int i = 0; i < route.size(); i++) {
+            Acquirer acquirer = route.get(i);
+            try {
+                return send(acquirer, request);
+            } catch (RestClientException e) {
+                if (isOutcomeUnknown(e)) {
+                    throw new BankOutcomeUnknownException("No answer from " + acquirer.getName(), acquirer.getName(), e);
+                }
+                failure = new BankServiceException("Unable to process payment with " + acquirer.getName(), e);
+                if (!isSafeToRetry(e)) {
+                    throw failure;
+                }
+                LOG.warn("Acquirer {} unavailable, failing over", acquirer.getName(), e);
+            }
+        }
+        throw failure;
+    }
+
+    /**
+     * Sends a payment whose outcome is unknown again to the acquirer that may have acted on it,
+     * with the same idempotency key. An acquirer that honours the key answers with the outcome of
+     * the first request instead of authorizing the payment twice.
+     *
+     * @throws BankOutcomeUnknownException if the acquirer again gave no usable answer
+     */
+    public BankPaymentResponse resendPayment(BankPaymentRequest request, String acquirerName) {
+        Acquirer acquirer = router.getAcquirers().stream()
+            .filter(candidate -> candidate.getName().equals(acquirerName))
+            .findFirst()
+            .orElseThrow(() -> new BankServiceException("Unknown acquirer " + acquirerName));
+        try {
+            return send(acquirer, request);
+        } catch (RestClientException e) {
+            throw new BankOutcomeUnknownException("Still no answer from " + acquirerName, acquirerName, e);
+        }
+    }
+
+    private BankPaymentResponse send(Acquirer acquirer, BankPaymentRequest request) {
+        HttpHeaders headers = new HttpHeaders();
+        if (request.getPaymentId() != null) {
+            headers.set(IDEMPOTENCY_KEY_HEADER, request.getPaymentId().toString());
+        }
+        long start = System.nanoTime();
+        PaymentStageEvent event = PaymentStageEvent.start(PaymentStageEvent.BANK);
         try {
             ResponseEntity<BankPaymentResponse> response = restTemplate.exchange(
-                bankUrl + PAYMENT_API_PATH,
+                acquirer.getUrl() + PAYMENT_API_PATH,
                 HttpMethod.POST,
-                new HttpEntity<>(request),
+                new HttpEntity<>(request, headers),
                 BankPaymentResponse.class
             );
+            acquirer.recordSuccess(System.nanoTime() - start);
 
-            return response.getBody();
+            BankPaymentResponse body = response.getBody();
+            if (body != null) {
+                body.setAcquirer(acquirer.getName());
+            }
+            event.complete(request.getPaymentId(),
+                body != null && body.isAuthorized() ? "authorized" : "declined", acquirer.getName());
+            return body;
         } catch (RestClientException e) {
-            throw new BankServiceException("Unable to process payment", e);
+            if (isAcquirerFault(e)) {
+                acquirer.recordFailure(System.nanoTime() - start);
+            } else {
+                // The acquirer answered, e.g. with a 4xx for this request; it is not unhealthy.
+                acquirer.recordSuccess(System.nanoTime() - start);
+            }
+            event.complete(request.getPaymentId(), "error", acquirer.getName());
+            throw e;
+        }
+    }
+
+    /**
+     * Serializes the request and parses a canned answer the way a real round trip would, without
+     * calling the bank. Authorizes like the simulator: odd last digit authorized, even declined.
+     */
+    private BankPaymentResponse dryRun(BankPaymentRequest request, Acquirer acquirer) {
+        try {
+            objectMapper.writeValueAsBytes(request);
+            String cardNumber = request.getCardNumber();
+            boolean authorized = (cardNumber.charAt(cardNumber.length() - 1) - '0') % 2 == 1;
+            BankPaymentResponse response = objectMapper.readValue(
+                authorized ? DRY_RUN_AUTHORIZED : DRY_RUN_DECLINED, BankPaymentResponse.class);
+            response.setAcquirer(acquirer.getName());
+            return response;
+        } catch (IOException e) {
+            throw new BankServiceException("Unable to process dry-run payment", e);
+        }
+    }
+
+    /**
+     * Only an unreachable or timed-out acquirer, or one answering with a server error, counts
+     * against its health. A 4xx says nothing about the acquirer, and counting it would let one bad
+     * request pattern mark a healthy acquirer as degraded.
+     */
+    private static boolean isAcquirerFault(RestClientException e) {
+        return e instanceof HttpServerErrorException || e instanceof ResourceAccessException;
+    }
+
+    /**
+     * The request reached the acquirer, which did not answer with an error status: it timed out,
+     * dropped the connection or sent a body that could not be read.
+     */
+    private static boolean isOutcomeUnknown(RestClientException e) {
+        return !(e instanceof HttpStatusCodeException) && !isSafeToRetry(e);
+    }
+
+    /**
+     * Only fail over when the bank certainly did not act on the request: it was never reached or
+     * it answered with a server error. A read timeout may still end in an authorization.
+     */
+    private static boolean isSafeToRetry(RestClientException e) {
+        return e instanceof HttpServerErrorException
+            || e instanceof ResourceAccessException && isConnectFailure(e);
+    }
+
+    /**
+     * The connection was never established: the host did not resolve, refused or could not be
+     * routed to, or the connect timed out, e.g. because a firewall drops the packets. Both
+     * HttpURLConnection ("Connect timed out") and HttpClient report connect timeouts apart from
+     * read timeouts.
+     */
+    private static boolean isConnectFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException || cause instanceof NoRouteToHostException
+                || cause instanceof UnknownHostException || cause instanceof ConnectTimeoutException
+                || cause instanceof SocketTimeoutException && "Connect timed out".equalsIgnoreCase(cause.getMessage())) {
+                return true;
+            }
         }
+        return false;
     }
 }
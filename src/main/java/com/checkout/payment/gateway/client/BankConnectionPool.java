@@ -0,0 +1,130 @@
+package com.checkout.payment.gateway.client;
+
+import com.checkout.payment.gateway.routing.Acquirer;
+
+import jakarta.annotation.PreDestroy;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pooled HTTP connections to the acquirers, used by every bank call.
+ *
+ * <p>Connections stay open between payments, so a payment only pays for a TCP and TLS handshake
+ * when every pooled connection to its acquirer is busy. A connection idle for more than a second
+ * is checked before it is reused, as the acquirer may have closed it, and one idle for longer than
+ * {@code bank.pool.idle-timeout} is closed. Failed requests are never retried by the pool:
+ * {@link BankClient} decides whether it is safe to try another acquirer.
+ */
+@Component
+public class BankConnectionPool {
+
+  private static final Logger LOG = LoggerFactory.getLogger(BankConnectionPool.class);
+
+  private final PoolingHttpClientConnectionManager connectionManager;
+  private final CloseableHttpClient httpClient;
+  private final Timeout connectTimeout;
+  private final TimeValue idleTimeout;
+
+  public BankConnectionPool(@Value("${bank.pool.max-connections-per-acquirer:50}") int maxPerAcquirer,
+                            @Value("${bank.pool.max-connections:200}") int maxTotal,
+                            @Value("${bank.pool.idle-timeout:1m}") Duration idleTimeout,
+                            @Value("${bank.connect-timeout:10s}") Duration connectTimeout,
+                            @Value("${bank.read-timeout:10s}") Duration readTimeout) {
+    this.connectTimeout = Timeout.ofMilliseconds(connectTimeout.toMillis());
+    this.idleTimeout = TimeValue.ofMilliseconds(idleTimeout.toMillis());
+    Timeout responseTimeout = Timeout.ofMilliseconds(readTimeout.toMillis());
+
+    this.connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+        .setMaxConnPerRoute(maxPerAcquirer)
+        .setMaxConnTotal(maxTotal)
+        .setDefaultConnectionConfig(ConnectionConfig.custom()
+            .setConnectTimeout(this.connectTimeout)
+            .setSocketTimeout(responseTimeout)
+            .setValidateAfterInactivity(TimeValue.ofSeconds(1))
+            .build())
+        .build();
+    this.httpClient = HttpClients.custom()
+        .setConnectionManager(connectionManager)
+        .setDefaultRequestConfig(RequestConfig.custom()
+            .setConnectionRequestTimeout(this.connectTimeout)
+            .setResponseTimeout(responseTimeout)
+            .build())
+        .evictIdleConnections(this.idleTimeout)
+        .disableAutomaticRetries()
+        .build();
+  }
+
+  public ClientHttpRequestFactory requestFactory() {
+    return new HttpComponentsClientHttpRequestFactory(httpClient);
+  }
+
+  /**
+   * Opens {@code connections} connections to every acquirer and returns them to the pool, so the
+   * first payments find them ready. The connections to an acquirer are all held until the last
+   * one is open, otherwise the pool would hand out the same connection again.
+   */
+  public void open(List<Acquirer> acquirers, int connections) {
+    for (Acquirer acquirer : acquirers) {
+      HttpRoute route = route(acquirer.getUrl());
+      List<ConnectionEndpoint> endpoints = new ArrayList<>();
+      try {
+        for (int i = 0; i < connections; i++) {
+          ConnectionEndpoint endpoint = connectionManager.lease("warm-up", route, connectTimeout, null)
+              .get(connectTimeout);
+          endpoints.add(endpoint);
+          if (!endpoint.isConnected()) {
+            connectionManager.connect(endpoint, connectTimeout, HttpClientContext.create());
+          }
+        }
+        LOG.info("Opened {} connections to acquirer {}", connections, acquirer.getName());
+      } catch (IOException | ExecutionException | TimeoutException e) {
+        LOG.warn("Unable to open connections to acquirer {}", acquirer.getName(), e);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } finally {
+        for (ConnectionEndpoint endpoint : endpoints) {
+          connectionManager.release(endpoint, null,
+              endpoint.isConnected() ? idleTimeout : TimeValue.ZERO_MILLISECONDS);
+        }
+      }
+    }
+  }
+
+  private static HttpRoute route(String url) {
+    URI uri = URI.create(url);
+    boolean secure = "https".equalsIgnoreCase(uri.getScheme());
+    int port = uri.getPort() != -1 ? uri.getPort() : secure ? 443 : 80;
+    return new HttpRoute(new HttpHost(uri.getScheme(), uri.getHost(), port), null, secure);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    httpClient.close(CloseMode.GRACEFUL);
+  }
+}
@@ -1,19 +1,21 @@
 package com.checkout.payment.gateway.configuration;
 
-import java.time.Duration;
+import com.checkout.payment.gateway.client.BankConnectionPool;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
 
 @Configuration
+@EnableConfigurationProperties({BankRoutingProperties.class, RateLimitProperties.class})
 public class ApplicationConfiguration {
 
   @Bean
-  public RestTemplate restTemplate(RestTemplateBuilder builder) {
+  public RestTemplate restTemplate(RestTemplateBuilder builder, BankConnectionPool bankConnectionPool) {
     return builder
-        .setConnectTimeout(Duration.ofMillis(10000))
-        .setReadTimeout(Duration.ofMillis(10000))
+        .requestFactory(bankConnectionPool::requestFactory)
         .build();
   }
 }
@@ -0,0 +1,32 @@
+package com.checkout.payment.gateway.configuration;
+
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "bank.routing")
+public class BankRoutingProperties {
+
+  /** Weight of the newest sample in the latency and error rate averages. */
+  private double ewmaAlpha = 0.2;
+
+  /** Error rate above which an acquirer is only used when no healthy acquirer is left. */
+  private double degradedErrorRate = 0.5;
+
+  /** How often a degraded acquirer is given a single request to check whether it recovered. */
+  private Duration probeInterval = Duration.ofSeconds(5);
+
+  /** Acquirers in order of preference. Defaults to bank.simulator.url for every BIN if empty. */
+  private List<AcquirerProperties> acquirers = new ArrayList<>();
+
+  @Data
+  public static class AcquirerProperties {
+    private String name;
+    private String url;
+    private List<String> binRanges = new ArrayList<>();
+  }
+}
@@ -0,0 +1,45 @@
+package com.checkout.payment.gateway.configuration;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Marks the springdoc bean definitions lazy in the {@code prod} profile, so that the OpenAPI
+ * machinery is only created when {@code /v3/api-docs} is first requested instead of on every
+ * startup. Beans that others depend on eagerly, such as {@code WebMvcConfigurer}s, are still
+ * created at startup.
+ *
+ * <p>Bean definitions generated by AOT processing keep the lazy flag, so this also applies to
+ * {@code bootRunCds}.
+ */
+@Component
+@Profile("prod")
+public class LazySpringdocPostProcessor implements BeanFactoryPostProcessor {
+
+  private static final String SPRINGDOC_PACKAGE = "org.springdoc.";
+
+  @Override
+  public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+    for (String name : beanFactory.getBeanDefinitionNames()) {
+      BeanDefinition definition = beanFactory.getBeanDefinition(name);
+      if (definition.getRole() != BeanDefinition.ROLE_INFRASTRUCTURE
+          && isSpringdoc(beanFactory, definition)) {
+        definition.setLazyInit(true);
+      }
+    }
+  }
+
+  /** A bean of a springdoc class, or made by a {@code @Bean} method of a springdoc configuration. */
+  private static boolean isSpringdoc(ConfigurableListableBeanFactory beanFactory, BeanDefinition definition) {
+    String className = definition.getBeanClassName();
+    String factoryBean = definition.getFactoryBeanName();
+    if (className == null && factoryBean != null && beanFactory.containsBeanDefinition(factoryBean)) {
+      className = beanFactory.getBeanDefinition(factoryBean).getBeanClassName();
+    }
+    return className != null && className.startsWith(SPRINGDOC_PACKAGE);
+  }
+}
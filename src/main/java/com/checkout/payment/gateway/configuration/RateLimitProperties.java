@@ -0,0 +1,66 @@
+package com.checkout.payment.gateway.configuration;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+  private boolean enabled = true;
+
+  /** Request header identifying the merchant. Requests without it are limited per remote address. */
+  @NotBlank
+  private String clientHeader = "X-Api-Key";
+
+  /** Most clients tracked at once; further clients share a single bucket per endpoint. */
+  @Positive
+  private int maxClients = 100_000;
+
+  @Valid
+  @NotNull
+  private ClientQuotas defaults = new ClientQuotas();
+
+  /** Per-client overrides of {@link #defaults}, keyed by the client header value. */
+  @Valid
+  @NotNull
+  private Map<String, ClientQuotas> clients = new HashMap<>();
+
+  @Data
+  public static class ClientQuotas {
+    @Valid
+    @NotNull
+    private QuotaProperties post = new QuotaProperties(100, 200);
+
+    @Valid
+    @NotNull
+    private QuotaProperties get = new QuotaProperties(500, 1000);
+  }
+
+  @Data
+  public static class QuotaProperties {
+    @Positive
+    private double requestsPerSecond;
+
+    @Min(1)
+    private int burst;
+
+    public QuotaProperties() {
+    }
+
+    public QuotaProperties(double requestsPerSecond, int burst) {
+      this.requestsPerSecond = requestsPerSecond;
+      this.burst = burst;
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package com.checkout.payment.gateway.configuration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exits the application as soon as it is ready when started with {@code startup.training-run=true}.
+ * Used to record the CDS archive and to measure startup time.
+ *
+ * <p>The property is checked at runtime rather than through a bean condition so that it still
+ * works when bean definitions come from AOT processing.
+ */
+@Component
+public class TrainingRunListener implements ApplicationListener<ApplicationReadyEvent> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(TrainingRunListener.class);
+
+  private final boolean trainingRun;
+
+  public TrainingRunListener(@Value("${startup.training-run:false}") boolean trainingRun) {
+    this.trainingRun = trainingRun;
+  }
+
+  @Override
+  public void onApplicationEvent(ApplicationReadyEvent event) {
+    if (!trainingRun) {
+      return;
+    }
+
+    LOG.info("Training run finished after {} ms, exiting", event.getTimeTaken().toMillis());
+    System.exit(SpringApplication.exit(event.getApplicationContext()));
+  }
+}
@@ -0,0 +1,22 @@
+package com.checkout.payment.gateway.configuration;
+
+import com.checkout.payment.gateway.ratelimit.RateLimitInterceptor;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfiguration implements WebMvcConfigurer {
+
+  private final RateLimitInterceptor rateLimitInterceptor;
+
+  public WebConfiguration(RateLimitInterceptor rateLimitInterceptor) {
+    this.rateLimitInterceptor = rateLimitInterceptor;
+  }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(rateLimitInterceptor).addPathPatterns("/payment", "/payment/*");
+  }
+}
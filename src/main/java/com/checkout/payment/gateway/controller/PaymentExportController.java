@@ -0,0 +1,69 @@
+package com.checkout.payment.gateway.controller;
+
+import com.checkout.payment.gateway.exception.UnsupportedExportFormatException;
+import com.checkout.payment.gateway.export.ExportFormat;
+import com.checkout.payment.gateway.export.PaymentExport;
+import com.checkout.payment.gateway.export.PaymentExporter;
+import com.checkout.payment.gateway.export.PaymentTotals;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import org.springframework.boot.actuate.endpoint.web.annotation.RestControllerEndpoint;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+/**
+ * Served as the {@code paymentexport} actuator endpoint, i.e. only on the management port. Only
+ * one export runs at a time; another request gets 409 until it is done.
+ */
+@Component
+@RestControllerEndpoint(id = "paymentexport")
+public class PaymentExportController {
+
+  private static final String TOTALS = "totals";
+
+  private final PaymentExporter paymentExporter;
+
+  public PaymentExportController(PaymentExporter paymentExporter) {
+    this.paymentExporter = paymentExporter;
+  }
+
+  /**
+   * Exports all stored payments as csv or ndjson, grouped by currency and status, or only their
+   * totals per currency and status as csv. The management server thread is held while the export
+   * runs.
+   *
+   * @throws UnsupportedExportFormatException if the format is none of csv, ndjson and totals
+   */
+  @GetMapping
+  public void export(@RequestParam(defaultValue = "csv") String format, HttpServletResponse response)
+      throws IOException {
+    if (TOTALS.equals(format)) {
+      try (PaymentExport export = paymentExporter.export()) {
+        PaymentTotals totals = export.getTotals();
+        download(response, ExportFormat.CSV.getContentType(), "payment-totals.csv");
+        Writer writer = new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8);
+        totals.writeCsv(writer);
+        writer.flush();
+      }
+      return;
+    }
+
+    ExportFormat exportFormat = ExportFormat.fromExtension(format);
+    try (PaymentExport export = paymentExporter.export()) {
+      download(response, exportFormat.getContentType(), "payments." + exportFormat.getExtension());
+      export.writeTo(exportFormat, response.getOutputStream());
+    }
+  }
+
+  private static void download(HttpServletResponse response, String contentType, String filename) {
+    response.setContentType(contentType);
+    response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+  }
+}
@@ -1,6 +1,8 @@
 package com.checkout.payment.gateway.controller;
 
 import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.jfr.PaymentBindingAdvice;
+import com.checkout.payment.gateway.jfr.PaymentStageEvent;
 import com.checkout.payment.gateway.model.PostPaymentRequest;
 import com.checkout.payment.gateway.model.PostPaymentResponse;
 import com.checkout.payment.gateway.service.PaymentGatewayService;
@@ -29,16 +31,39 @@ public class PaymentGatewayController {
 
   @PostMapping("/payment")
   public ResponseEntity<PostPaymentResponse> processPayment(@RequestBody @Valid PostPaymentRequest request) {
-    return ResponseEntity.ok(paymentGatewayService.processPayment(request));
+    PaymentBindingAdvice.complete("valid");
+    PaymentStageEvent event = PaymentStageEvent.start(PaymentStageEvent.CONTROLLER);
+    PostPaymentResponse payment = null;
+    try {
+      if (request.isAsync()) {
+        payment = paymentGatewayService.acceptPayment(request);
+        return new ResponseEntity<>(payment, HttpStatus.ACCEPTED);
+      }
+      payment = paymentGatewayService.processPayment(request);
+      return ResponseEntity.ok(payment);
+    } finally {
+      event.complete(payment == null ? null : payment.getId(),
+          payment == null ? "error" : payment.getStatus().getName(), "POST");
+    }
   }
 
   @GetMapping("/payment/{id}")
   public ResponseEntity<PostPaymentResponse> getPostPaymentEventById(@PathVariable UUID id) {
-    return new ResponseEntity<>(paymentGatewayService.getPaymentById(id), HttpStatus.OK);
+    PaymentStageEvent event = PaymentStageEvent.start(PaymentStageEvent.CONTROLLER);
+    PostPaymentResponse payment = null;
+    try {
+      payment = paymentGatewayService.getPaymentById(id);
+      return new ResponseEntity<>(payment, HttpStatus.OK);
+    } finally {
+      event.complete(id, payment == null ? "not-found" : payment.getStatus().getName(), "GET");
+    }
   }
 
   @ExceptionHandler(MethodArgumentNotValidException.class)
   public ResponseEntity<PostPaymentResponse> handleValidationFailure(MethodArgumentNotValidException ex) {
+      PaymentBindingAdvice.complete("invalid");
+      PaymentStageEvent.start(PaymentStageEvent.CONTROLLER)
+          .complete(null, PaymentStatus.REJECTED.getName(), "POST");
       PostPaymentResponse response = new PostPaymentResponse();
       response.setStatus(PaymentStatus.REJECTED);
       return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
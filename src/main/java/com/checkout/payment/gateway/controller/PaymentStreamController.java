@@ -0,0 +1,30 @@
+package com.checkout.payment.gateway.controller;
+
+import com.checkout.payment.gateway.stream.PaymentEventStream;
+
+import org.springframework.boot.actuate.endpoint.web.annotation.RestControllerEndpoint;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Served as the {@code paymentstream} actuator endpoint, i.e. only on the management port: the
+ * stream carries every merchant's payments and has no authentication of its own.
+ */
+@Component
+@RestControllerEndpoint(id = "paymentstream")
+public class PaymentStreamController {
+
+  private final PaymentEventStream paymentEventStream;
+
+  public PaymentStreamController(PaymentEventStream paymentEventStream) {
+    this.paymentEventStream = paymentEventStream;
+  }
+
+  @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter streamPayments(@RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+    return paymentEventStream.subscribe(lastEventId);
+  }
+}
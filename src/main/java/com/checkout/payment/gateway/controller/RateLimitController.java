@@ -0,0 +1,47 @@
+package com.checkout.payment.gateway.controller;
+
+import com.checkout.payment.gateway.configuration.RateLimitProperties;
+import com.checkout.payment.gateway.model.ErrorResponse;
+import com.checkout.payment.gateway.ratelimit.RateLimiter;
+
+import jakarta.validation.Valid;
+
+import org.springframework.boot.actuate.endpoint.web.annotation.RestControllerEndpoint;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+/**
+ * Served as the {@code ratelimits} actuator endpoint, i.e. only on the management port.
+ */
+@Component
+@RestControllerEndpoint(id = "ratelimits")
+public class RateLimitController {
+
+  private final RateLimiter rateLimiter;
+
+  public RateLimitController(RateLimiter rateLimiter) {
+    this.rateLimiter = rateLimiter;
+  }
+
+  @GetMapping
+  public ResponseEntity<RateLimitProperties> getRateLimits() {
+    return ResponseEntity.ok(rateLimiter.getProperties());
+  }
+
+  @PutMapping
+  public ResponseEntity<RateLimitProperties> reloadRateLimits(@RequestBody @Valid RateLimitProperties properties) {
+    rateLimiter.reload(properties);
+    return ResponseEntity.ok(rateLimiter.getProperties());
+  }
+
+  @ExceptionHandler(MethodArgumentNotValidException.class)
+  public ResponseEntity<ErrorResponse> handleValidationFailure(MethodArgumentNotValidException ex) {
+    return new ResponseEntity<>(new ErrorResponse("Invalid rate limits"), HttpStatus.BAD_REQUEST);
+  }
+}
@@ -0,0 +1,54 @@
+package com.checkout.payment.gateway.controller;
+
+import com.checkout.payment.gateway.service.FlightRecordingService;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.text.ParseException;
+import java.time.Duration;
+import jdk.jfr.Recording;
+import org.springframework.boot.actuate.endpoint.web.annotation.RestControllerEndpoint;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+/**
+ * Served as the {@code recordings} actuator endpoint, i.e. only on the management port.
+ */
+@Component
+@RestControllerEndpoint(id = "recordings")
+public class RecordingController {
+
+  private final FlightRecordingService flightRecordingService;
+
+  public RecordingController(FlightRecordingService flightRecordingService) {
+    this.flightRecordingService = flightRecordingService;
+  }
+
+  /**
+   * Records the node for the given number of seconds and streams back the .jfr file. The
+   * management server thread is held while the recording runs. The recording is discarded if
+   * anything fails before it is handed to {@link FlightRecordingService#finish}.
+   */
+  @PostMapping
+  public void record(@RequestParam(defaultValue = "30") long seconds, HttpServletResponse response)
+      throws IOException, ParseException {
+    Recording recording = flightRecordingService.start();
+    boolean handedOver = false;
+    try {
+      response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+      response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"payment-gateway.jfr\"");
+      OutputStream out = response.getOutputStream();
+      handedOver = true;
+      flightRecordingService.finish(recording, Duration.ofSeconds(seconds), out);
+    } finally {
+      if (!handedOver) {
+        flightRecordingService.discard(recording);
+      }
+    }
+  }
+}
@@ -0,0 +1,7 @@
+package com.checkout.payment.gateway.exception;
+
+public class AuthorizationCapacityException extends RuntimeException {
+  public AuthorizationCapacityException(String message) {
+    super(message);
+  }
+}
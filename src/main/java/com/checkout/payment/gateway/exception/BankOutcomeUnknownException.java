@@ -0,0 +1,19 @@
+package com.checkout.payment.gateway.exception;
+
+/**
+ * The acquirer was reached but did not give a usable answer, e.g. the read timed out, so it may
+ * still have authorized the payment.
+ */
+public class BankOutcomeUnknownException extends BankServiceException {
+  private final String acquirer;
+
+  public BankOutcomeUnknownException(String message, String acquirer, Throwable cause) {
+    super(message, cause);
+    this.acquirer = acquirer;
+  }
+
+  /** The acquirer that may have acted on the payment. */
+  public String getAcquirer() {
+    return acquirer;
+  }
+}
@@ -0,0 +1,7 @@
+package com.checkout.payment.gateway.exception;
+
+public class CallbackUrlNotAllowedException extends RuntimeException {
+  public CallbackUrlNotAllowedException(String message) {
+    super(message);
+  }
+}
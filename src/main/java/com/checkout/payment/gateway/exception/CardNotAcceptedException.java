@@ -0,0 +1,10 @@
+package com.checkout.payment.gateway.exception;
+
+/**
+ * No configured acquirer accepts the card's BIN. A property of the request, not a bank failure.
+ */
+public class CardNotAcceptedException extends RuntimeException {
+  public CardNotAcceptedException(String message) {
+    super(message);
+  }
+}
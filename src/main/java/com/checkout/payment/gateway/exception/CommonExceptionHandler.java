@@ -1,9 +1,12 @@
 package com.checkout.payment.gateway.exception;
 
+import com.checkout.payment.gateway.jfr.PaymentBindingAdvice;
 import com.checkout.payment.gateway.model.ErrorResponse;
+import com.checkout.payment.gateway.ratelimit.RateLimitInterceptor;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -29,8 +32,70 @@ public class CommonExceptionHandler {
       HttpStatus.INTERNAL_SERVER_ERROR);
   }
 
+  @ExceptionHandler(CardNotAcceptedException.class)
+  public ResponseEntity<ErrorResponse> handleCardNotAccepted(CardNotAcceptedException ex) {
+    LOG.warn("Payment rejected: {}", ex.getMessage());
+    return new ResponseEntity<>(new ErrorResponse("Card not supported by any acquirer"), HttpStatus.BAD_REQUEST);
+  }
+
+  @ExceptionHandler(AuthorizationCapacityException.class)
+  public ResponseEntity<ErrorResponse> handleAuthorizationCapacity(AuthorizationCapacityException ex) {
+    LOG.warn("Asynchronous payment rejected: {}", ex.getMessage());
+    return new ResponseEntity<>(new ErrorResponse("Unable to accept the payment, please retry later"),
+        HttpStatus.SERVICE_UNAVAILABLE);
+  }
+
+  @ExceptionHandler(CallbackUrlNotAllowedException.class)
+  public ResponseEntity<ErrorResponse> handleCallbackUrlNotAllowed(CallbackUrlNotAllowedException ex) {
+    LOG.warn("Asynchronous payment rejected: {}", ex.getMessage());
+    return new ResponseEntity<>(new ErrorResponse("Callback URL not allowed"), HttpStatus.BAD_REQUEST);
+  }
+
+  @ExceptionHandler(RateLimitExceededException.class)
+  public ResponseEntity<ErrorResponse> handleRateLimitExceeded(RateLimitExceededException ex) {
+    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+        .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+        .header(RateLimitInterceptor.LIMIT_HEADER, Integer.toString(ex.getLimit()))
+        .header(RateLimitInterceptor.REMAINING_HEADER, "0")
+        .header(RateLimitInterceptor.RESET_HEADER, Long.toString(ex.getRetryAfterSeconds()))
+        .body(new ErrorResponse("Too many requests"));
+  }
+
+  @ExceptionHandler(RecordingInProgressException.class)
+  public ResponseEntity<ErrorResponse> handleRecordingInProgress(RecordingInProgressException ex) {
+    LOG.warn("Recording rejected", ex);
+    return new ResponseEntity<>(new ErrorResponse(ex.getMessage()), HttpStatus.CONFLICT);
+  }
+
+  @ExceptionHandler(ExportInProgressException.class)
+  public ResponseEntity<ErrorResponse> handleExportInProgress(ExportInProgressException ex) {
+    LOG.warn("Export rejected: {}", ex.getMessage());
+    return new ResponseEntity<>(new ErrorResponse(ex.getMessage()), HttpStatus.CONFLICT);
+  }
+
+  @ExceptionHandler(UnsupportedExportFormatException.class)
+  public ResponseEntity<ErrorResponse> handleUnsupportedExportFormat(UnsupportedExportFormatException ex) {
+    LOG.warn("Export rejected: {}", ex.getMessage());
+    return new ResponseEntity<>(new ErrorResponse("Unsupported export format"), HttpStatus.BAD_REQUEST);
+  }
+
+  // No body for stream errors: the client asked for text/event-stream, which an ErrorResponse
+  // cannot be written as.
+  @ExceptionHandler(StreamCursorExpiredException.class)
+  public ResponseEntity<Void> handleStreamCursorExpired(StreamCursorExpiredException ex) {
+    LOG.warn("Stream resume rejected: {}", ex.getMessage());
+    return new ResponseEntity<>(HttpStatus.GONE);
+  }
+
+  @ExceptionHandler(StreamCapacityException.class)
+  public ResponseEntity<Void> handleStreamCapacity(StreamCapacityException ex) {
+    LOG.warn("Stream subscription rejected: {}", ex.getMessage());
+    return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+  }
+
   @ExceptionHandler(HttpMessageNotReadableException.class)
   public ResponseEntity<ErrorResponse> handleMalformedRequest(HttpMessageNotReadableException ex) {
+    PaymentBindingAdvice.complete("malformed");
     LOG.warn("Malformed request body", ex);
     return new ResponseEntity<>(new ErrorResponse("Invalid request body"),
         HttpStatus.BAD_REQUEST);
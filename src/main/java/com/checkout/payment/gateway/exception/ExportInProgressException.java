@@ -0,0 +1,7 @@
+package com.checkout.payment.gateway.exception;
+
+public class ExportInProgressException extends RuntimeException {
+  public ExportInProgressException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,20 @@
+package com.checkout.payment.gateway.exception;
+
+public class RateLimitExceededException extends RuntimeException {
+  private final int limit;
+  private final long retryAfterSeconds;
+
+  public RateLimitExceededException(int limit, long retryAfterSeconds) {
+    super("Rate limit exceeded");
+    this.limit = limit;
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+
+  public int getLimit() {
+    return limit;
+  }
+
+  public long getRetryAfterSeconds() {
+    return retryAfterSeconds;
+  }
+}
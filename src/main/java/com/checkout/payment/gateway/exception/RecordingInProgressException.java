@@ -0,0 +1,7 @@
+package com.checkout.payment.gateway.exception;
+
+public class RecordingInProgressException extends RuntimeException {
+  public RecordingInProgressException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,7 @@
+package com.checkout.payment.gateway.exception;
+
+public class StreamCapacityException extends RuntimeException {
+  public StreamCapacityException(String message) {
+    super(message);
+  }
+}
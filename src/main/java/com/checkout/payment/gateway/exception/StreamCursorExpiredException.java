@@ -0,0 +1,7 @@
+package com.checkout.payment.gateway.exception;
+
+public class StreamCursorExpiredException extends RuntimeException {
+  public StreamCursorExpiredException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,7 @@
+package com.checkout.payment.gateway.exception;
+
+public class UnsupportedExportFormatException extends RuntimeException {
+  public UnsupportedExportFormatException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,114 @@
+package com.checkout.payment.gateway.export;
+
+import com.checkout.payment.gateway.exception.UnsupportedExportFormatException;
+import com.checkout.payment.gateway.repository.PaymentCursor;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+import java.io.IOException;
+import java.io.Writer;
+
+public enum ExportFormat {
+  CSV("csv", "text/csv",
+      "id,status,currency,amount,expiry_month,expiry_year,card_number_last_four,acquirer\n") {
+    @Override
+    void writeRow(PaymentCursor payment, Writer out) throws IOException {
+      out.write(payment.getId().toString());
+      out.write(',');
+      out.write(name(payment.getStatus() == null ? null : payment.getStatus().getName()));
+      out.write(',');
+      out.write(name(payment.getCurrency() == null ? null : payment.getCurrency().name()));
+      out.write(',');
+      out.write(Long.toString(payment.getAmount()));
+      out.write(',');
+      out.write(Integer.toString(payment.getExpiryMonth()));
+      out.write(',');
+      out.write(Integer.toString(payment.getExpiryYear()));
+      out.write(',');
+      out.write(name(payment.getCardNumberLastFour()));
+      out.write(',');
+      out.write(quote(payment.getAcquirer()));
+      out.write('\n');
+    }
+
+    private static String name(String value) {
+      return value == null ? "" : value;
+    }
+
+    private static String quote(String value) {
+      if (value == null) {
+        return "";
+      }
+      if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+        return value;
+      }
+      return '"' + value.replace("\"", "\"\"") + '"';
+    }
+  },
+
+  /** One object per line, with the field names of {@code GET /payment/{id}}. */
+  NDJSON("ndjson", "application/x-ndjson", "") {
+    @Override
+    void writeRow(PaymentCursor payment, Writer out) throws IOException {
+      out.write("{\"id\":\"");
+      out.write(payment.getId().toString());
+      out.write("\",\"status\":");
+      out.write(string(payment.getStatus() == null ? null : payment.getStatus().getName()));
+      out.write(",\"cardNumberLastFour\":");
+      out.write(string(payment.getCardNumberLastFour()));
+      out.write(",\"expiryMonth\":");
+      out.write(Integer.toString(payment.getExpiryMonth()));
+      out.write(",\"expiryYear\":");
+      out.write(Integer.toString(payment.getExpiryYear()));
+      out.write(",\"currency\":");
+      out.write(string(payment.getCurrency() == null ? null : payment.getCurrency().name()));
+      out.write(",\"amount\":");
+      out.write(Long.toString(payment.getAmount()));
+      out.write(",\"acquirer\":");
+      out.write(string(payment.getAcquirer()));
+      out.write("}\n");
+    }
+
+    private static String string(String value) {
+      if (value == null) {
+        return "null";
+      }
+      return '"' + new String(JsonStringEncoder.getInstance().quoteAsString(value)) + '"';
+    }
+  };
+
+  private final String extension;
+  private final String contentType;
+  private final String header;
+
+  ExportFormat(String extension, String contentType, String header) {
+    this.extension = extension;
+    this.contentType = contentType;
+    this.header = header;
+  }
+
+  public String getExtension() {
+    return extension;
+  }
+
+  public String getContentType() {
+    return contentType;
+  }
+
+  public String getHeader() {
+    return header;
+  }
+
+  abstract void writeRow(PaymentCursor payment, Writer out) throws IOException;
+
+  /**
+   * @throws UnsupportedExportFormatException if there is no format with that extension
+   */
+  public static ExportFormat fromExtension(String extension) {
+    for (ExportFormat format : values()) {
+      if (format.extension.equals(extension)) {
+        return format;
+      }
+    }
+    throw new UnsupportedExportFormatException("Unsupported export format " + extension);
+  }
+}
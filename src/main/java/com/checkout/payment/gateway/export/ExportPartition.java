@@ -0,0 +1,22 @@
+package com.checkout.payment.gateway.export;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of exporting a range of slots.
+ *
+ * @param chunks chunk files of each scanned partition in slot order, indexed by format ordinal
+ *               then group, null where the partition had no payment in the group
+ * @param totals totals over the whole range
+ */
+record ExportPartition(List<Path[][]> chunks, PaymentTotals totals) {
+
+  ExportPartition merge(ExportPartition next) {
+    List<Path[][]> merged = new ArrayList<>(chunks.size() + next.chunks.size());
+    merged.addAll(chunks);
+    merged.addAll(next.chunks);
+    return new ExportPartition(merged, totals.merge(next.totals));
+  }
+}
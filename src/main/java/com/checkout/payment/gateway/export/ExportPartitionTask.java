@@ -0,0 +1,101 @@
+package com.checkout.payment.gateway.export;
+
+import com.checkout.payment.gateway.repository.PaymentCursor;
+import com.checkout.payment.gateway.repository.PaymentsRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Splits a slot range in halves until it is at most {@code partitionSize} slots, then scans it,
+ * writing each payment to the chunk file of its format and group and adding it to the totals.
+ * Concatenating the chunks group by group, partition by partition, gives the export grouped by
+ * currency and status.
+ */
+class ExportPartitionTask extends RecursiveTask<ExportPartition> {
+
+  private final PaymentsRepository repository;
+  private final Path directory;
+  private final ExportFormat[] formats;
+  private final int partitionSize;
+  private final int from;
+  private final int to;
+
+  ExportPartitionTask(PaymentsRepository repository, Path directory, ExportFormat[] formats,
+                      int partitionSize, int from, int to) {
+    this.repository = repository;
+    this.directory = directory;
+    this.formats = formats;
+    this.partitionSize = partitionSize;
+    this.from = from;
+    this.to = to;
+  }
+
+  @Override
+  protected ExportPartition compute() {
+    if (to - from <= partitionSize) {
+      return scan();
+    }
+
+    int middle = (from + to) >>> 1;
+    ExportPartitionTask first = new ExportPartitionTask(repository, directory, formats, partitionSize, from, middle);
+    ExportPartitionTask second = new ExportPartitionTask(repository, directory, formats, partitionSize, middle, to);
+    first.fork();
+    ExportPartition secondResult = second.compute();
+    return first.join().merge(secondResult);
+  }
+
+  private ExportPartition scan() {
+    PaymentTotals totals = new PaymentTotals();
+    Path[][] files = new Path[ExportFormat.values().length][PaymentTotals.GROUPS];
+    Writer[][] writers = new Writer[ExportFormat.values().length][PaymentTotals.GROUPS];
+
+    try {
+      PaymentCursor payment = repository.cursor(from, to);
+      while (payment.next()) {
+        int group = PaymentTotals.group(payment.getCurrency(), payment.getStatus());
+        totals.add(group, payment.getAmount());
+
+        for (ExportFormat format : formats) {
+          Writer writer = writers[format.ordinal()][group];
+          if (writer == null) {
+            Path file = directory.resolve(group + "-" + from + "." + format.getExtension());
+            files[format.ordinal()][group] = file;
+            writer = Files.newBufferedWriter(file);
+            writers[format.ordinal()][group] = writer;
+          }
+          format.writeRow(payment, writer);
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      close(writers);
+    }
+    return new ExportPartition(List.<Path[][]>of(files), totals);
+  }
+
+  private static void close(Writer[][] writers) {
+    IOException failure = null;
+    for (Writer[] formatWriters : writers) {
+      for (Writer writer : formatWriters) {
+        if (writer == null) {
+          continue;
+        }
+        try {
+          writer.close();
+        } catch (IOException e) {
+          failure = e;
+        }
+      }
+    }
+    if (failure != null) {
+      throw new UncheckedIOException(failure);
+    }
+  }
+}
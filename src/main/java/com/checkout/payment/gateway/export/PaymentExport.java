@@ -0,0 +1,89 @@
+package com.checkout.payment.gateway.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * An export of the payments stored when it started. It holds the exporter until closed; closing
+ * it deletes its work directory and lets the next export start.
+ *
+ * <p>Writing scans the payments once into chunk files and adds up the totals in the same pass,
+ * then concatenates the chunks group by group, so the rows come out grouped by currency and status
+ * without sorting.
+ */
+public class PaymentExport implements Closeable {
+
+  private final PaymentExporter exporter;
+  private final Path directory;
+  private final int size;
+  private final Runnable onClose;
+
+  PaymentExport(PaymentExporter exporter, Path directory, int size, Runnable onClose) {
+    this.exporter = exporter;
+    this.directory = directory;
+    this.size = size;
+    this.onClose = onClose;
+  }
+
+  /** Scans the payments once, writing no chunk, and returns their totals. */
+  public PaymentTotals getTotals() throws IOException {
+    return exporter.scan(directory, new ExportFormat[0], size).totals();
+  }
+
+  /** Writes the header and the rows of the format, grouped by currency and status. */
+  public void writeTo(ExportFormat format, OutputStream out) throws IOException {
+    writeTo(new ExportFormat[] {format}, new OutputStream[] {out});
+  }
+
+  /**
+   * Writes each format to the stream at the same index, sharing a single scan, and returns the
+   * totals of the payments written.
+   */
+  PaymentTotals writeTo(ExportFormat[] formats, OutputStream[] outs) throws IOException {
+    for (int i = 0; i < formats.length; i++) {
+      outs[i].write(formats[i].getHeader().getBytes(StandardCharsets.UTF_8));
+    }
+
+    ExportPartition result = exporter.scan(directory, formats, size);
+    for (int i = 0; i < formats.length; i++) {
+      copy(result, formats[i], outs[i]);
+      outs[i].flush();
+    }
+    return result.totals();
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      delete(directory);
+    } finally {
+      onClose.run();
+    }
+  }
+
+  private static void copy(ExportPartition result, ExportFormat format, OutputStream out)
+      throws IOException {
+    for (int group = 0; group < PaymentTotals.GROUPS; group++) {
+      for (Path[][] chunk : result.chunks()) {
+        Path file = chunk[format.ordinal()][group];
+        if (file != null) {
+          Files.copy(file, out);
+        }
+      }
+    }
+  }
+
+  static void delete(Path directory) throws IOException {
+    try (Stream<Path> files = Files.walk(directory)) {
+      for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+        Files.delete(file);
+      }
+    }
+  }
+}
@@ -0,0 +1,220 @@
+package com.checkout.payment.gateway.export;
+
+import com.checkout.payment.gateway.exception.ExportInProgressException;
+import com.checkout.payment.gateway.repository.PaymentsRepository;
+
+import jakarta.annotation.PreDestroy;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exports every stored payment, grouped by currency and status, together with per-currency and
+ * status totals.
+ *
+ * <p>The repository is scanned by a fork-join pool of its own with low parallelism, so an export
+ * leaves the request and authorization threads alone. Partitions write to chunk files in a work
+ * directory, which keeps memory use independent of the number of payments. Payments stored after
+ * an export started are not part of it.
+ *
+ * <p>Only one export runs at a time, from its start until it is closed: requested exports fail
+ * fast while another one is in progress, the daily export waits for it.
+ */
+@Component
+public class PaymentExporter {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PaymentExporter.class);
+
+  private final PaymentsRepository paymentsRepository;
+  private final int partitionSize;
+  private final Path workDirectory;
+  private final Path dailyDirectory;
+  private final ForkJoinPool pool;
+  private final ScheduledExecutorService scheduler;
+  private final Semaphore inProgress = new Semaphore(1);
+
+  public PaymentExporter(PaymentsRepository paymentsRepository,
+                         @Value("${export.parallelism:2}") int parallelism,
+                         @Value("${export.partition-size:262144}") int partitionSize,
+                         @Value("${export.work-directory:${java.io.tmpdir}}") Path workDirectory,
+                         @Value("${export.daily.enabled:false}") boolean dailyEnabled,
+                         @Value("${export.daily.cron:0 0 2 * * *}") String dailyCron,
+                         @Value("${export.daily.zone:UTC}") ZoneId dailyZone,
+                         @Value("${export.daily.directory:exports}") Path dailyDirectory) {
+    this.paymentsRepository = paymentsRepository;
+    this.partitionSize = partitionSize;
+    this.workDirectory = workDirectory;
+    this.dailyDirectory = dailyDirectory;
+    this.pool = new ForkJoinPool(parallelism, pool -> {
+      ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+      thread.setName("payment-export-" + thread.getPoolIndex());
+      thread.setPriority(Thread.MIN_PRIORITY);
+      return thread;
+    }, null, false);
+
+    if (dailyEnabled) {
+      this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "payment-export-scheduler");
+        thread.setDaemon(true);
+        return thread;
+      });
+      scheduleDaily(CronExpression.parse(dailyCron), dailyZone);
+    } else {
+      this.scheduler = null;
+    }
+  }
+
+  /**
+   * Starts an export of the payments stored now. The caller must close the returned export.
+   *
+   * @throws ExportInProgressException if another export has not been closed yet
+   */
+  public PaymentExport export() throws IOException {
+    if (!inProgress.tryAcquire()) {
+      throw new ExportInProgressException("An export is already in progress");
+    }
+    return start();
+  }
+
+  /**
+   * Writes the export in every format plus the totals to the daily directory, sharing one scan
+   * between formats and totals. Each file is written under a temporary name and then moved in place, so
+   * readers never see a partial file.
+   */
+  public void exportDaily(LocalDate date) throws IOException {
+    Files.createDirectories(dailyDirectory);
+    try {
+      inProgress.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for the export in progress", e);
+    }
+
+    try (PaymentExport export = start()) {
+      ExportFormat[] formats = ExportFormat.values();
+      String[] names = new String[formats.length];
+      OutputStream[] outs = new OutputStream[formats.length];
+      PaymentTotals totals;
+      try {
+        for (int i = 0; i < formats.length; i++) {
+          names[i] = "payments-" + date + "." + formats[i].getExtension();
+          outs[i] = new BufferedOutputStream(Files.newOutputStream(temporary(names[i])));
+        }
+        totals = export.writeTo(formats, outs);
+      } finally {
+        close(outs);
+      }
+      for (String name : names) {
+        publish(name);
+      }
+
+      String totalsName = "payment-totals-" + date + ".csv";
+      try (Writer writer = Files.newBufferedWriter(temporary(totalsName))) {
+        totals.writeCsv(writer);
+      }
+      publish(totalsName);
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+    }
+    pool.shutdownNow();
+  }
+
+  /** Scans the first {@code size} slots, writing chunk files for the formats to the directory. */
+  ExportPartition scan(Path directory, ExportFormat[] formats, int size) throws IOException {
+    long start = System.nanoTime();
+    try {
+      ExportPartition result = pool.invoke(new ExportPartitionTask(paymentsRepository, directory,
+          formats, partitionSize, 0, size));
+      LOG.info("Scanned {} payments in {} ms", size,
+          TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+      return result;
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  /** Creates the export once the permit is held, releasing it if that fails. */
+  private PaymentExport start() throws IOException {
+    try {
+      Files.createDirectories(workDirectory);
+      Path directory = Files.createTempDirectory(workDirectory, "payment-export-");
+      int size = paymentsRepository.size();
+      LOG.info("Exporting {} payments", size);
+      return new PaymentExport(this, directory, size, inProgress::release);
+    } catch (IOException | RuntimeException e) {
+      inProgress.release();
+      throw e;
+    }
+  }
+
+  private Path temporary(String name) {
+    return dailyDirectory.resolve(name + ".tmp");
+  }
+
+  private void publish(String name) throws IOException {
+    Path target = dailyDirectory.resolve(name);
+    Files.move(temporary(name), target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    LOG.info("Wrote {}", target);
+  }
+
+  private static void close(OutputStream[] outs) throws IOException {
+    IOException failure = null;
+    for (OutputStream out : outs) {
+      if (out == null) {
+        continue;
+      }
+      try {
+        out.close();
+      } catch (IOException e) {
+        failure = e;
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  private void scheduleDaily(CronExpression cron, ZoneId zone) {
+    ZonedDateTime now = ZonedDateTime.now(zone);
+    ZonedDateTime next = cron.next(now);
+    if (next == null) {
+      LOG.warn("Daily payment export cron never fires again");
+      return;
+    }
+
+    scheduler.schedule(() -> {
+      try {
+        exportDaily(next.toLocalDate());
+      } catch (IOException | RuntimeException e) {
+        LOG.error("Daily payment export failed", e);
+      }
+      scheduleDaily(cron, zone);
+    }, Duration.between(now, next).toMillis(), TimeUnit.MILLISECONDS);
+  }
+}
@@ -0,0 +1,69 @@
+package com.checkout.payment.gateway.export;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.enums.SupportedCurrency;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Payment count and amount per currency and status. Payments are grouped by an index that orders
+ * groups by currency, then status, with payments missing either one last.
+ */
+public class PaymentTotals {
+
+  private static final SupportedCurrency[] CURRENCIES = SupportedCurrency.values();
+  private static final PaymentStatus[] STATUSES = PaymentStatus.values();
+  static final int GROUPS = (CURRENCIES.length + 1) * (STATUSES.length + 1);
+
+  private final long[] counts = new long[GROUPS];
+  private final long[] amounts = new long[GROUPS];
+
+  static int group(SupportedCurrency currency, PaymentStatus status) {
+    int currencyIndex = currency == null ? CURRENCIES.length : currency.ordinal();
+    int statusIndex = status == null ? STATUSES.length : status.ordinal();
+    return currencyIndex * (STATUSES.length + 1) + statusIndex;
+  }
+
+  void add(int group, long amount) {
+    counts[group]++;
+    amounts[group] += amount;
+  }
+
+  PaymentTotals merge(PaymentTotals other) {
+    for (int group = 0; group < GROUPS; group++) {
+      counts[group] += other.counts[group];
+      amounts[group] += other.amounts[group];
+    }
+    return this;
+  }
+
+  public long getCount(SupportedCurrency currency, PaymentStatus status) {
+    return counts[group(currency, status)];
+  }
+
+  public long getAmount(SupportedCurrency currency, PaymentStatus status) {
+    return amounts[group(currency, status)];
+  }
+
+  /** Writes one CSV row per currency and status with at least one payment. */
+  public void writeCsv(Writer out) throws IOException {
+    out.write("currency,status,count,amount\n");
+    for (int group = 0; group < GROUPS; group++) {
+      if (counts[group] == 0) {
+        continue;
+      }
+
+      int currencyIndex = group / (STATUSES.length + 1);
+      int statusIndex = group % (STATUSES.length + 1);
+      out.write(currencyIndex < CURRENCIES.length ? CURRENCIES[currencyIndex].name() : "");
+      out.write(',');
+      out.write(statusIndex < STATUSES.length ? STATUSES[statusIndex].getName() : "");
+      out.write(',');
+      out.write(Long.toString(counts[group]));
+      out.write(',');
+      out.write(Long.toString(amounts[group]));
+      out.write('\n');
+    }
+  }
+}
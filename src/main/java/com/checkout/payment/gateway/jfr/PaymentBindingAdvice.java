@@ -0,0 +1,78 @@
+package com.checkout.payment.gateway.jfr;
+
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+/**
+ * Emits the json and validation {@link PaymentStageEvent}s of a payment request. The json stage
+ * spans Jackson reading the body; the validation stage starts when it ends, since {@code @Valid}
+ * runs right after, and is completed by whoever sees the outcome: the controller method, or the
+ * handler of the validation failure.
+ *
+ * <p>The open stage is kept in a request attribute. {@link PaymentStageFilter} completes any
+ * stage still open when the exchange ends, e.g. because the body could not be parsed.
+ */
+@ControllerAdvice
+public class PaymentBindingAdvice extends RequestBodyAdviceAdapter {
+
+  private static final String OPEN_STAGE = PaymentBindingAdvice.class.getName() + ".openStage";
+
+  @Override
+  public boolean supports(MethodParameter methodParameter, Type targetType,
+                          Class<? extends HttpMessageConverter<?>> converterType) {
+    return PostPaymentRequest.class.equals(targetType);
+  }
+
+  @Override
+  public HttpInputMessage beforeBodyRead(HttpInputMessage inputMessage, MethodParameter parameter,
+                                         Type targetType,
+                                         Class<? extends HttpMessageConverter<?>> converterType)
+      throws IOException {
+    open(PaymentStageEvent.start(PaymentStageEvent.JSON));
+    return inputMessage;
+  }
+
+  @Override
+  public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter,
+                              Type targetType, Class<? extends HttpMessageConverter<?>> converterType) {
+    complete("parsed");
+    if (parameter.hasParameterAnnotation(Valid.class)) {
+      open(PaymentStageEvent.start(PaymentStageEvent.VALIDATION));
+    }
+    return body;
+  }
+
+  /** Completes the stage open for the current request, if any, with the given outcome. */
+  public static void complete(String outcome) {
+    RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    if (attributes instanceof ServletRequestAttributes servletAttributes) {
+      complete(servletAttributes.getRequest(), outcome);
+    }
+  }
+
+  static void complete(HttpServletRequest request, String outcome) {
+    Object stage = request.getAttribute(OPEN_STAGE);
+    if (stage != null) {
+      request.removeAttribute(OPEN_STAGE);
+      ((PaymentStageEvent) stage).complete(null, outcome);
+    }
+  }
+
+  private static void open(PaymentStageEvent event) {
+    RequestAttributes attributes = RequestContextHolder.currentRequestAttributes();
+    attributes.setAttribute(OPEN_STAGE, event, RequestAttributes.SCOPE_REQUEST);
+  }
+}
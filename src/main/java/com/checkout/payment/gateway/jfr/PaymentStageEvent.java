@@ -0,0 +1,69 @@
+package com.checkout.payment.gateway.jfr;
+
+import java.util.UUID;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event covering the time a payment spends in one stage of processing.
+ *
+ * <p>Fields are only filled in once {@link #shouldCommit()} says the event is recorded, so with
+ * recording off the cost is a timestamp check and one small allocation. That allocation is not
+ * always eliminated: the json and validation events are kept in a request attribute by
+ * {@link PaymentBindingAdvice}, so they escape and are allocated on the heap.
+ */
+@Name("com.checkout.payment.gateway.PaymentStage")
+@Label("Payment Stage")
+@Category("Payment Gateway")
+@Description("Time spent by a payment in one stage of processing")
+@StackTrace(false)
+public class PaymentStageEvent extends Event {
+
+  public static final String HTTP = "http";
+  public static final String JSON = "json";
+  public static final String VALIDATION = "validation";
+  public static final String CONTROLLER = "controller";
+  public static final String BANK = "bank";
+  public static final String REPOSITORY = "repository";
+
+  @Label("Payment ID")
+  String paymentId;
+
+  @Label("Stage")
+  String stage;
+
+  @Label("Outcome")
+  String outcome;
+
+  @Label("Detail")
+  String detail;
+
+  private PaymentStageEvent(String stage) {
+    this.stage = stage;
+  }
+
+  public static PaymentStageEvent start(String stage) {
+    PaymentStageEvent event = new PaymentStageEvent(stage);
+    event.begin();
+    return event;
+  }
+
+  public void complete(UUID paymentId, String outcome) {
+    complete(paymentId, outcome, null);
+  }
+
+  public void complete(UUID paymentId, String outcome, String detail) {
+    end();
+    if (shouldCommit()) {
+      this.paymentId = paymentId == null ? null : paymentId.toString();
+      this.outcome = outcome;
+      this.detail = detail;
+      commit();
+    }
+  }
+}
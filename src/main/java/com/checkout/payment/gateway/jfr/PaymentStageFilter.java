@@ -0,0 +1,39 @@
+package com.checkout.payment.gateway.jfr;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Emits a {@link PaymentStageEvent} for the whole HTTP exchange of a payment request. Request
+ * parsing and validation have stages of their own, see {@link PaymentBindingAdvice}; what is left
+ * between this and the controller stage is mostly response serialization.
+ */
+@Component
+public class PaymentStageFilter extends OncePerRequestFilter {
+
+  private static final String PAYMENT_PATH = "/payment";
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    String path = request.getRequestURI();
+    return !path.equals(PAYMENT_PATH) && !path.startsWith(PAYMENT_PATH + "/");
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    PaymentStageEvent event = PaymentStageEvent.start(PaymentStageEvent.HTTP);
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      PaymentBindingAdvice.complete(request, "error");
+      event.complete(null, Integer.toString(response.getStatus()), request.getMethod());
+    }
+  }
+}
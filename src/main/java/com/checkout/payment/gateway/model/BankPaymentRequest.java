@@ -1,10 +1,13 @@
 package com.checkout.payment.gateway.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import lombok.Builder;
 import lombok.Data;
 
+import java.util.UUID;
+
 @Data
 @Builder
 public class BankPaymentRequest {
@@ -19,4 +22,8 @@ public class BankPaymentRequest {
     private Long amount;
 
     private String cvv;
+
+    /** Gateway payment ID, sent to the bank as the Idempotency-Key header rather than in the body. */
+    @JsonIgnore
+    private UUID paymentId;
 }
@@ -1,16 +1,25 @@
 package com.checkout.payment.gateway.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class BankPaymentResponse {
     
     private boolean authorized;
 
     @JsonProperty("authorization_code")
     private String authorizationCode;
+
+    /** Name of the acquirer that answered, set by the client rather than the bank. */
+    @JsonIgnore
+    private String acquirer;
 }
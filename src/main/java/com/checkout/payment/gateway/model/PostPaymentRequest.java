@@ -63,6 +63,11 @@ public class PostPaymentRequest implements Serializable {
   @Pattern(regexp = "^[0-9]{3,4}$", message = "CVV must be a 3 or 4 digit number")
   private String cvv;
 
+  @Pattern(regexp = "^https?://\\S+$", message = "Callback URL must be an http or https URL")
+  @Schema(example = "https://merchant.example.com/payments/callback")
+  @JsonProperty("callback_url")
+  private String callbackUrl;
+
   @JsonIgnore
   @AssertTrue(message = "Expiry year and month must be valid and in the future")
   public boolean isExpiryDateFuture() {
@@ -92,6 +97,11 @@ public class PostPaymentRequest implements Serializable {
     }
   }
 
+  @JsonIgnore
+  public boolean isAsync() {
+    return callbackUrl != null;
+  }
+
   @JsonIgnore
   public String getExpiryString() {
     return YearMonth.of(expiryYear, expiryMonth).format(DateTimeFormatter.ofPattern("MM/yyyy"));
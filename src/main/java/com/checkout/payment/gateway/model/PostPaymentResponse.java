@@ -17,9 +17,14 @@ public class PostPaymentResponse {
   private int expiryYear;
   private String currency;
   private long amount;
+  private String acquirer;
 
   public PostPaymentResponse(PostPaymentRequest request, PaymentStatus status) {
-    this.id = UUID.randomUUID();
+    this(UUID.randomUUID(), request, status);
+  }
+
+  public PostPaymentResponse(UUID id, PostPaymentRequest request, PaymentStatus status) {
+    this.id = id;
     this.status = status;
     this.expiryMonth = request.getExpiryMonth();
     this.expiryYear = request.getExpiryYear();
@@ -0,0 +1,26 @@
+package com.checkout.payment.gateway.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allowed request rate with a burst allowance, precomputed as GCRA intervals.
+ *
+ * @param burst         maximum number of requests let through at once, i.e. the bucket size
+ * @param intervalNanos time to refill one token
+ * @param toleranceNanos how far the TAT may run ahead of now and still let a request through
+ */
+record Quota(int burst, long intervalNanos, long toleranceNanos) {
+
+  static Quota of(double requestsPerSecond, int burst) {
+    if (requestsPerSecond <= 0 || burst < 1) {
+      throw new IllegalArgumentException("Rate and burst must be positive");
+    }
+    long interval = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond));
+    return new Quota(burst, interval, interval * (burst - 1));
+  }
+
+  /** Tokens left after a request that moved the bucket's TAT to {@code tat}. */
+  long remaining(long now, long tat) {
+    return Math.max(0, Math.floorDiv(now + toleranceNanos - tat, intervalNanos) + 1);
+  }
+}
@@ -0,0 +1,68 @@
+package com.checkout.payment.gateway.ratelimit;
+
+import com.checkout.payment.gateway.exception.RateLimitExceededException;
+import com.checkout.payment.gateway.warmup.WarmupContext;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Applies the {@link RateLimiter} to the payment endpoints, identifying the merchant by the
+ * configured client header.
+ *
+ * <p>Synthetic warm-up payments go through the limiter as well, so that it is compiled before
+ * real traffic arrives, but against a client key of their own and without ever being refused.
+ */
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+  public static final String LIMIT_HEADER = "X-RateLimit-Limit";
+  public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+  public static final String RESET_HEADER = "X-RateLimit-Reset";
+
+  static final String WARMUP_CLIENT = "warm-up";
+
+  private final RateLimiter rateLimiter;
+  private final WarmupContext warmupContext;
+
+  public RateLimitInterceptor(RateLimiter rateLimiter, WarmupContext warmupContext) {
+    this.rateLimiter = rateLimiter;
+    this.warmupContext = warmupContext;
+  }
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+    if (!rateLimiter.isEnabled()) {
+      return true;
+    }
+
+    RateLimitedEndpoint endpoint = HttpMethod.POST.matches(request.getMethod())
+        ? RateLimitedEndpoint.POST_PAYMENT
+        : RateLimitedEndpoint.GET_PAYMENT;
+    boolean warmup = warmupContext.isActive();
+    String client = warmup ? WARMUP_CLIENT : request.getHeader(rateLimiter.getClientHeader());
+    if (client == null || client.isEmpty()) {
+      client = request.getRemoteAddr();
+    }
+
+    RateLimitResult result = rateLimiter.tryAcquire(client, endpoint);
+    long waitSeconds = toSeconds(result.waitNanos());
+    if (!result.allowed() && !warmup) {
+      throw new RateLimitExceededException(result.limit(), waitSeconds);
+    }
+
+    response.setHeader(LIMIT_HEADER, Integer.toString(result.limit()));
+    response.setHeader(REMAINING_HEADER, Long.toString(result.remaining()));
+    response.setHeader(RESET_HEADER, Long.toString(waitSeconds));
+    return true;
+  }
+
+  private static long toSeconds(long nanos) {
+    return Math.max(0, (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+  }
+}
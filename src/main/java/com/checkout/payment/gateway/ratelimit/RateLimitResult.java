@@ -0,0 +1,13 @@
+package com.checkout.payment.gateway.ratelimit;
+
+/**
+ * Outcome of a rate limit check.
+ *
+ * @param allowed    whether the request may proceed
+ * @param limit      bucket size of the quota applied
+ * @param remaining  requests the client can still make right away
+ * @param waitNanos  if allowed, time until the bucket is full again, otherwise time until the
+ *                   next request would be allowed
+ */
+public record RateLimitResult(boolean allowed, int limit, long remaining, long waitNanos) {
+}
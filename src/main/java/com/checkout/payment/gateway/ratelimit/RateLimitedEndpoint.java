@@ -0,0 +1,6 @@
+package com.checkout.payment.gateway.ratelimit;
+
+public enum RateLimitedEndpoint {
+  POST_PAYMENT,
+  GET_PAYMENT
+}
@@ -0,0 +1,146 @@
+package com.checkout.payment.gateway.ratelimit;
+
+import com.checkout.payment.gateway.configuration.RateLimitProperties;
+import com.checkout.payment.gateway.configuration.RateLimitProperties.ClientQuotas;
+import com.checkout.payment.gateway.configuration.RateLimitProperties.QuotaProperties;
+
+import jakarta.annotation.PreDestroy;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-client, per-endpoint rate limits backed by {@link TokenBucket}s.
+ *
+ * <p>Buckets that have refilled completely are indistinguishable from new ones, so a background
+ * sweep drops them every {@code rate-limit.sweep-interval}; requests never scan the buckets. When
+ * the number of tracked clients reaches the maximum, new clients share one overflow bucket per
+ * endpoint until a sweep frees up space.
+ *
+ * <p>Limits are read from an immutable snapshot that {@link #reload} replaces atomically; the
+ * buckets keep their state across a reload.
+ */
+@Component
+public class RateLimiter {
+
+  private static final Logger LOG = LoggerFactory.getLogger(RateLimiter.class);
+
+  private final long origin = System.nanoTime();
+  private final RateLimitedEndpoint[] endpoints = RateLimitedEndpoint.values();
+  private final ConcurrentHashMap<String, TokenBucket>[] buckets;
+  private final TokenBucket[] overflow;
+  private final ScheduledExecutorService sweeper;
+
+  private volatile Policy policy;
+
+  @SuppressWarnings("unchecked")
+  public RateLimiter(RateLimitProperties properties,
+                     @Value("${rate-limit.sweep-interval:1s}") Duration sweepInterval) {
+    this.buckets = new ConcurrentHashMap[endpoints.length];
+    this.overflow = new TokenBucket[endpoints.length];
+    for (int i = 0; i < endpoints.length; i++) {
+      buckets[i] = new ConcurrentHashMap<>();
+      overflow[i] = new TokenBucket();
+    }
+    reload(properties);
+
+    this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "rate-limit-sweeper");
+      thread.setDaemon(true);
+      return thread;
+    });
+    sweeper.scheduleWithFixedDelay(this::evictIdle, sweepInterval.toMillis(),
+        sweepInterval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  public void reload(RateLimitProperties properties) {
+    Map<String, Quota[]> clients = new HashMap<>();
+    properties.getClients().forEach((client, quotas) -> clients.put(client, quotas(quotas)));
+    this.policy = new Policy(properties, quotas(properties.getDefaults()), clients);
+    LOG.info("Loaded rate limits for {} client overrides", clients.size());
+  }
+
+  public RateLimitProperties getProperties() {
+    return policy.properties();
+  }
+
+  public boolean isEnabled() {
+    return policy.properties().isEnabled();
+  }
+
+  public String getClientHeader() {
+    return policy.properties().getClientHeader();
+  }
+
+  /**
+   * Takes a token from the client's bucket for the endpoint.
+   *
+   * @return the outcome, with the numbers needed for the rate limit headers
+   */
+  public RateLimitResult tryAcquire(String client, RateLimitedEndpoint endpoint) {
+    Policy policy = this.policy;
+    Quota[] quotas = policy.clients().getOrDefault(client, policy.defaults());
+    Quota quota = quotas[endpoint.ordinal()];
+
+    long now = System.nanoTime() - origin;
+    TokenBucket bucket = bucket(client, endpoint.ordinal(), policy.properties().getMaxClients());
+    long tat = bucket.tryAcquire(now, quota);
+    if (tat >= 0) {
+      return new RateLimitResult(true, quota.burst(), quota.remaining(now, tat), tat - now);
+    }
+    return new RateLimitResult(false, quota.burst(), 0, -tat - quota.toleranceNanos() - now);
+  }
+
+  /** Drops the buckets that have refilled completely. Runs on the sweeper thread. */
+  public void evictIdle() {
+    long now = System.nanoTime() - origin;
+    for (ConcurrentHashMap<String, TokenBucket> clients : buckets) {
+      clients.values().removeIf(bucket -> bucket.isFull(now));
+    }
+  }
+
+  int trackedClients(RateLimitedEndpoint endpoint) {
+    return buckets[endpoint.ordinal()].size();
+  }
+
+  private TokenBucket bucket(String client, int endpoint, int maxClients) {
+    ConcurrentHashMap<String, TokenBucket> clients = buckets[endpoint];
+    TokenBucket bucket = clients.get(client);
+    if (bucket != null) {
+      return bucket;
+    }
+
+    if (clients.size() >= maxClients) {
+      return overflow[endpoint];
+    }
+    return clients.computeIfAbsent(client, key -> new TokenBucket());
+  }
+
+  private Quota[] quotas(ClientQuotas quotas) {
+    Quota[] byEndpoint = new Quota[endpoints.length];
+    byEndpoint[RateLimitedEndpoint.POST_PAYMENT.ordinal()] = quota(quotas.getPost());
+    byEndpoint[RateLimitedEndpoint.GET_PAYMENT.ordinal()] = quota(quotas.getGet());
+    return byEndpoint;
+  }
+
+  private static Quota quota(QuotaProperties properties) {
+    return Quota.of(properties.getRequestsPerSecond(), properties.getBurst());
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    sweeper.shutdownNow();
+  }
+
+  private record Policy(RateLimitProperties properties, Quota[] defaults, Map<String, Quota[]> clients) {
+  }
+}
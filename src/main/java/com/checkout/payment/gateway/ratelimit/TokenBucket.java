@@ -0,0 +1,40 @@
+package com.checkout.payment.gateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, stored as the theoretical arrival time (TAT) of the next request as in
+ * the generic cell rate algorithm. A full bucket is a TAT at or before now, and taking a token
+ * moves the TAT one refill interval forward, so a check is a single CAS in the common case.
+ *
+ * <p>Times are nanoseconds on the owning {@link RateLimiter}'s clock, which never goes below 0.
+ */
+class TokenBucket {
+
+  private final AtomicLong tat = new AtomicLong();
+
+  /**
+   * Takes a token if one is available.
+   *
+   * @return the new TAT if a token was taken, otherwise the current TAT negated
+   */
+  long tryAcquire(long now, Quota quota) {
+    long interval = quota.intervalNanos();
+    long tolerance = quota.toleranceNanos();
+    while (true) {
+      long current = tat.get();
+      long start = Math.max(current, now);
+      if (start - now > tolerance) {
+        return -current;
+      }
+      if (tat.compareAndSet(current, start + interval)) {
+        return start + interval;
+      }
+    }
+  }
+
+  /** A bucket that has refilled completely holds no state worth keeping. */
+  boolean isFull(long now) {
+    return tat.get() <= now;
+  }
+}
@@ -0,0 +1,88 @@
+package com.checkout.payment.gateway.repository;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.enums.SupportedCurrency;
+import java.util.UUID;
+
+/**
+ * Flyweight over a range of stored payments. Records are copied from the repository in batches
+ * and the getters read the current one, so scanning allocates nothing per payment beyond the
+ * values asked for.
+ *
+ * <p>Each batch is a consistent copy, but a payment updated after its batch was copied is seen
+ * with its earlier values. Not thread-safe.
+ */
+public class PaymentCursor {
+
+  static final int BATCH_SIZE = 1024;
+
+  private final PaymentsRepository repository;
+  private final int end;
+  private int nextSlot;
+  private int count;
+  private int position;
+
+  final long[] idHigh = new long[BATCH_SIZE];
+  final long[] idLow = new long[BATCH_SIZE];
+  final long[] amounts = new long[BATCH_SIZE];
+  final short[] expiryYears = new short[BATCH_SIZE];
+  final short[] lastFours = new short[BATCH_SIZE];
+  final byte[] expiryMonths = new byte[BATCH_SIZE];
+  final byte[] currencies = new byte[BATCH_SIZE];
+  final byte[] statuses = new byte[BATCH_SIZE];
+  final byte[] acquirers = new byte[BATCH_SIZE];
+  String[] acquirerNames;
+
+  PaymentCursor(PaymentsRepository repository, int from, int to) {
+    this.repository = repository;
+    this.nextSlot = from;
+    this.end = to;
+  }
+
+  /** Moves to the next payment, returning false once the range is exhausted. */
+  public boolean next() {
+    if (++position < count) {
+      return true;
+    }
+    if (nextSlot >= end) {
+      return false;
+    }
+
+    count = repository.fill(nextSlot, Math.min(BATCH_SIZE, end - nextSlot), this);
+    nextSlot = count == 0 ? end : nextSlot + count;
+    position = 0;
+    return count > 0;
+  }
+
+  public UUID getId() {
+    return new UUID(idHigh[position], idLow[position]);
+  }
+
+  public PaymentStatus getStatus() {
+    return PaymentsRepository.decodeStatus(statuses[position]);
+  }
+
+  public SupportedCurrency getCurrency() {
+    return PaymentsRepository.decodeCurrency(currencies[position]);
+  }
+
+  public long getAmount() {
+    return amounts[position];
+  }
+
+  public int getExpiryMonth() {
+    return expiryMonths[position];
+  }
+
+  public int getExpiryYear() {
+    return expiryYears[position];
+  }
+
+  public String getCardNumberLastFour() {
+    return PaymentsRepository.decodeLastFour(lastFours[position]);
+  }
+
+  public String getAcquirer() {
+    return PaymentsRepository.decode(acquirerNames, acquirers[position]);
+  }
+}
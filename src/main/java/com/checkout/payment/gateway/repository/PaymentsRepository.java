@@ -1,22 +1,364 @@
 package com.checkout.payment.gateway.repository;
 
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.enums.SupportedCurrency;
 import com.checkout.payment.gateway.model.PostPaymentResponse;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.StampedLock;
 import org.springframework.stereotype.Repository;
 
+/**
+ * Stores payments packed into primitive columns instead of one object graph per payment, about
+ * 32 bytes per record plus the index. A {@link PostPaymentResponse} is only materialized when a
+ * payment is read.
+ *
+ * <p>Records are appended to fixed-size chunks so that growing never copies existing records. The
+ * ID index is split into segments by ID hash, each an open-addressing table of record slots with
+ * its own lock: writes to different segments run in parallel, and doubling a segment's table only
+ * re-hashes that segment's IDs under that segment's lock. Reads are optimistic and only fall back
+ * to the read lock when they overlap a write to the same segment.
+ */
 @Repository
 public class PaymentsRepository {
 
-  private final HashMap<UUID, PostPaymentResponse> payments = new HashMap<>();
+  private static final int CHUNK_BITS = 16;
+  private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+  private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+  private static final int SEGMENT_BITS = 6;
+  private static final int INITIAL_SEGMENT_INDEX_SIZE = 1 << 4;
+
+  private static final PaymentStatus[] STATUSES = PaymentStatus.values();
+  private static final SupportedCurrency[] CURRENCIES = SupportedCurrency.values();
+  private static final byte NONE = -1;
+
+  private final Segment[] segments = new Segment[1 << SEGMENT_BITS];
+  private final AtomicInteger nextSlot = new AtomicInteger();
+  private volatile Chunk[] chunks = new Chunk[0];
+
+  private volatile String[] acquirerNames = new String[0];
+  private final Map<String, Byte> acquirerCodes = new ConcurrentHashMap<>();
+
+  public PaymentsRepository() {
+    for (int i = 0; i < segments.length; i++) {
+      segments[i] = new Segment();
+    }
+  }
 
   public void add(PostPaymentResponse payment) {
-    payments.put(payment.getId(), payment);
+    long high = payment.getId().getMostSignificantBits();
+    long low = payment.getId().getLeastSignificantBits();
+    short lastFour = encodeLastFour(payment.getCardNumberLastFour());
+    byte currency = encodeCurrency(payment.getCurrency());
+    byte status = payment.getStatus() == null ? NONE : (byte) payment.getStatus().ordinal();
+    byte acquirer = encodeAcquirer(payment.getAcquirer());
+
+    int hash = hash(high, low);
+    Segment segment = segmentFor(hash);
+    long stamp = segment.lock.writeLock();
+    try {
+      int slot = segment.find(chunks, hash, high, low);
+      if (slot < 0) {
+        slot = append(segment, hash, high, low);
+      }
+
+      Chunk chunk = chunks[slot >>> CHUNK_BITS];
+      int offset = slot & CHUNK_MASK;
+      chunk.amounts[offset] = payment.getAmount();
+      chunk.expiryYears[offset] = (short) payment.getExpiryYear();
+      chunk.expiryMonths[offset] = (byte) payment.getExpiryMonth();
+      chunk.lastFours[offset] = lastFour;
+      chunk.currencies[offset] = currency;
+      chunk.statuses[offset] = status;
+      chunk.acquirers[offset] = acquirer;
+    } finally {
+      segment.lock.unlockWrite(stamp);
+    }
   }
 
   public Optional<PostPaymentResponse> get(UUID id) {
-    return Optional.ofNullable(payments.get(id));
+    long high = id.getMostSignificantBits();
+    long low = id.getLeastSignificantBits();
+    int hash = hash(high, low);
+    Segment segment = segmentFor(hash);
+
+    long stamp = segment.lock.tryOptimisticRead();
+    if (stamp != 0) {
+      PostPaymentResponse payment = read(segment, id, hash, high, low);
+      if (segment.lock.validate(stamp)) {
+        return Optional.ofNullable(payment);
+      }
+    }
+
+    stamp = segment.lock.readLock();
+    try {
+      return Optional.ofNullable(read(segment, id, hash, high, low));
+    } finally {
+      segment.lock.unlockRead(stamp);
+    }
+  }
+
+  /** Number of stored payments. Slots {@code 0} to {@code size() - 1} can be scanned. */
+  public int size() {
+    return nextSlot.get();
+  }
+
+  /** Returns a cursor over the payments stored in slots {@code from} to {@code to - 1}. */
+  public PaymentCursor cursor(int from, int to) {
+    return new PaymentCursor(this, from, to);
+  }
+
+  /**
+   * Copies up to {@code count} records starting at slot {@code from} into the cursor's buffers.
+   * The read lock of every segment is held for the copy, so that no record in the range is half
+   * written, and writers wait for at most one batch.
+   *
+   * @return number of records copied
+   */
+  int fill(int from, int count, PaymentCursor cursor) {
+    long[] stamps = new long[segments.length];
+    for (int i = 0; i < segments.length; i++) {
+      stamps[i] = segments[i].lock.readLock();
+    }
+    try {
+      Chunk[] chunks = this.chunks;
+      count = Math.max(0, Math.min(count, nextSlot.get() - from));
+      for (int copied = 0; copied < count; ) {
+        int slot = from + copied;
+        Chunk chunk = chunks[slot >>> CHUNK_BITS];
+        int offset = slot & CHUNK_MASK;
+        int length = Math.min(count - copied, CHUNK_SIZE - offset);
+        System.arraycopy(chunk.idHigh, offset, cursor.idHigh, copied, length);
+        System.arraycopy(chunk.idLow, offset, cursor.idLow, copied, length);
+        System.arraycopy(chunk.amounts, offset, cursor.amounts, copied, length);
+        System.arraycopy(chunk.expiryYears, offset, cursor.expiryYears, copied, length);
+        System.arraycopy(chunk.lastFours, offset, cursor.lastFours, copied, length);
+        System.arraycopy(chunk.expiryMonths, offset, cursor.expiryMonths, copied, length);
+        System.arraycopy(chunk.currencies, offset, cursor.currencies, copied, length);
+        System.arraycopy(chunk.statuses, offset, cursor.statuses, copied, length);
+        System.arraycopy(chunk.acquirers, offset, cursor.acquirers, copied, length);
+        copied += length;
+      }
+      cursor.acquirerNames = acquirerNames;
+      return count;
+    } finally {
+      for (int i = segments.length - 1; i >= 0; i--) {
+        segments[i].lock.unlockRead(stamps[i]);
+      }
+    }
+  }
+
+  /**
+   * Looks up and materializes a payment. Under an optimistic read the segment's table may be torn
+   * or point at slots of chunks not yet visible, so every access is bounds-checked and the result
+   * is discarded unless the stamp validates.
+   */
+  private PostPaymentResponse read(Segment segment, UUID id, int hash, long high, long low) {
+    Chunk[] chunks = this.chunks;
+    int[] index = segment.index;
+    int mask = index.length - 1;
+
+    int bucket = hash & mask;
+    for (int probes = 0; probes <= mask; probes++, bucket = (bucket + 1) & mask) {
+      int slot = index[bucket] - 1;
+      if (slot < 0) {
+        return null;
+      }
+
+      int chunk = slot >>> CHUNK_BITS;
+      if (chunk >= chunks.length) {
+        return null;
+      }
+      int offset = slot & CHUNK_MASK;
+      if (chunks[chunk].idHigh[offset] == high && chunks[chunk].idLow[offset] == low) {
+        return materialize(id, chunks[chunk], offset);
+      }
+    }
+    return null;
+  }
+
+  private PostPaymentResponse materialize(UUID id, Chunk chunk, int offset) {
+    PostPaymentResponse payment = new PostPaymentResponse();
+    payment.setId(id);
+    payment.setAmount(chunk.amounts[offset]);
+    payment.setExpiryYear(chunk.expiryYears[offset]);
+    payment.setExpiryMonth(chunk.expiryMonths[offset]);
+    payment.setCardNumberLastFour(decodeLastFour(chunk.lastFours[offset]));
+    SupportedCurrency currency = decodeCurrency(chunk.currencies[offset]);
+    payment.setCurrency(currency == null ? null : currency.name());
+    payment.setStatus(decodeStatus(chunk.statuses[offset]));
+    payment.setAcquirer(decode(acquirerNames, chunk.acquirers[offset]));
+    return payment;
+  }
+
+  /** Takes the next free slot for a new ID. Only called under the segment's write lock. */
+  private int append(Segment segment, int hash, long high, long low) {
+    int slot = nextSlot.getAndIncrement();
+    Chunk[] chunks = this.chunks;
+    if (slot >>> CHUNK_BITS >= chunks.length) {
+      chunks = grow(slot >>> CHUNK_BITS);
+    }
+
+    Chunk chunk = chunks[slot >>> CHUNK_BITS];
+    chunk.idHigh[slot & CHUNK_MASK] = high;
+    chunk.idLow[slot & CHUNK_MASK] = low;
+    segment.insert(chunks, hash, slot);
+    return slot;
+  }
+
+  /** Publishes chunks up to the given one. Existing chunks are shared, never copied. */
+  private synchronized Chunk[] grow(int chunk) {
+    Chunk[] grown = chunks;
+    if (chunk >= grown.length) {
+      grown = Arrays.copyOf(grown, chunk + 1);
+      for (int i = chunks.length; i <= chunk; i++) {
+        grown[i] = new Chunk();
+      }
+      chunks = grown;
+    }
+    return grown;
+  }
+
+  private Segment segmentFor(int hash) {
+    return segments[hash >>> (Integer.SIZE - SEGMENT_BITS)];
+  }
+
+  private static int hash(long high, long low) {
+    long h = high ^ low;
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    return (int) h;
+  }
+
+  private byte encodeAcquirer(String acquirer) {
+    if (acquirer == null) {
+      return NONE;
+    }
+    Byte code = acquirerCodes.get(acquirer);
+    return code != null ? code : registerAcquirer(acquirer);
+  }
+
+  private synchronized byte registerAcquirer(String acquirer) {
+    Byte code = acquirerCodes.get(acquirer);
+    if (code == null) {
+      if (acquirerNames.length == Byte.MAX_VALUE) {
+        throw new IllegalStateException("Too many acquirers");
+      }
+      code = (byte) acquirerNames.length;
+      String[] names = Arrays.copyOf(acquirerNames, acquirerNames.length + 1);
+      names[code] = acquirer;
+      // Published before the code, so a reader that sees the code can decode it.
+      acquirerNames = names;
+      acquirerCodes.put(acquirer, code);
+    }
+    return code;
   }
 
+  private static byte encodeCurrency(String currency) {
+    return currency == null ? NONE : (byte) SupportedCurrency.valueOf(currency).ordinal();
+  }
+
+  private static short encodeLastFour(String lastFour) {
+    if (lastFour == null) {
+      return NONE;
+    }
+    if (lastFour.length() != 4 || !lastFour.chars().allMatch(Character::isDigit)) {
+      throw new IllegalArgumentException("Card number last four must be 4 digits");
+    }
+    return Short.parseShort(lastFour);
+  }
+
+  static String decodeLastFour(short lastFour) {
+    if (lastFour < 0) {
+      return null;
+    }
+    char[] digits = new char[4];
+    for (int i = 3, value = lastFour; i >= 0; i--, value /= 10) {
+      digits[i] = (char) ('0' + value % 10);
+    }
+    return new String(digits);
+  }
+
+  static SupportedCurrency decodeCurrency(byte code) {
+    return decode(CURRENCIES, code);
+  }
+
+  static PaymentStatus decodeStatus(byte code) {
+    return decode(STATUSES, code);
+  }
+
+  static <T> T decode(T[] values, byte code) {
+    return code >= 0 && code < values.length ? values[code] : null;
+  }
+
+  /** Columns of {@code CHUNK_SIZE} records. Final fields, so a published chunk is never seen empty. */
+  private static final class Chunk {
+    final long[] idHigh = new long[CHUNK_SIZE];
+    final long[] idLow = new long[CHUNK_SIZE];
+    final long[] amounts = new long[CHUNK_SIZE];
+    final short[] expiryYears = new short[CHUNK_SIZE];
+    final short[] lastFours = new short[CHUNK_SIZE];
+    final byte[] expiryMonths = new byte[CHUNK_SIZE];
+    final byte[] currencies = new byte[CHUNK_SIZE];
+    final byte[] statuses = new byte[CHUNK_SIZE];
+    final byte[] acquirers = new byte[CHUNK_SIZE];
+  }
+
+  /** One stripe of the ID index. Fields are only written under the segment's write lock. */
+  private static final class Segment {
+    final StampedLock lock = new StampedLock();
+
+    /** Record slot + 1 per hash bucket, 0 when empty. */
+    int[] index = new int[INITIAL_SEGMENT_INDEX_SIZE];
+    int count;
+
+    /** Returns the slot of the ID, or -1. */
+    int find(Chunk[] chunks, int hash, long high, long low) {
+      int mask = index.length - 1;
+      for (int bucket = hash & mask; ; bucket = (bucket + 1) & mask) {
+        int slot = index[bucket] - 1;
+        if (slot < 0) {
+          return -1;
+        }
+        Chunk chunk = chunks[slot >>> CHUNK_BITS];
+        if (chunk.idHigh[slot & CHUNK_MASK] == high && chunk.idLow[slot & CHUNK_MASK] == low) {
+          return slot;
+        }
+      }
+    }
+
+    void insert(Chunk[] chunks, int hash, int slot) {
+      if (++count * 4L > index.length * 3L) {
+        rehash(chunks, index.length * 2);
+      }
+      put(index, hash, slot);
+    }
+
+    /** Re-hashes this segment's IDs only; the IDs are read back from the chunks. */
+    private void rehash(Chunk[] chunks, int length) {
+      int[] rehashed = new int[length];
+      for (int entry : index) {
+        int slot = entry - 1;
+        if (slot >= 0) {
+          Chunk chunk = chunks[slot >>> CHUNK_BITS];
+          put(rehashed, hash(chunk.idHigh[slot & CHUNK_MASK], chunk.idLow[slot & CHUNK_MASK]), slot);
+        }
+      }
+      index = rehashed;
+    }
+
+    private static void put(int[] index, int hash, int slot) {
+      int mask = index.length - 1;
+      int bucket = hash & mask;
+      while (index[bucket] != 0) {
+        bucket = (bucket + 1) & mask;
+      }
+      index[bucket] = slot + 1;
+    }
+  }
 }
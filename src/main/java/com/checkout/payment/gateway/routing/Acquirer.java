@@ -0,0 +1,88 @@
+package com.checkout.payment.gateway.routing;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An acquiring bank the gateway can route authorizations to, together with its live health.
+ *
+ * <p>Latency and error rate are exponentially weighted moving averages updated with CAS, so
+ * recording an outcome never blocks a payment thread.
+ */
+public class Acquirer {
+
+  private final int index;
+  private final String name;
+  private final String url;
+  private final double alpha;
+  private final long probeIntervalNanos;
+
+  private final AtomicLong latencyNanos = new AtomicLong(Double.doubleToRawLongBits(0));
+  private final AtomicLong errorRate = new AtomicLong(Double.doubleToRawLongBits(0));
+  private final AtomicLong nextProbeNanos = new AtomicLong(System.nanoTime());
+
+  public Acquirer(int index, String name, String url, double alpha, long probeIntervalNanos) {
+    this.index = index;
+    this.name = name;
+    this.url = url;
+    this.alpha = alpha;
+    this.probeIntervalNanos = probeIntervalNanos;
+  }
+
+  public int getIndex() {
+    return index;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public String getUrl() {
+    return url;
+  }
+
+  public double getLatencyNanos() {
+    return Double.longBitsToDouble(latencyNanos.get());
+  }
+
+  public double getErrorRate() {
+    return Double.longBitsToDouble(errorRate.get());
+  }
+
+  public void recordSuccess(long elapsedNanos) {
+    update(latencyNanos, elapsedNanos);
+    update(errorRate, 0);
+  }
+
+  public void recordFailure(long elapsedNanos) {
+    update(latencyNanos, elapsedNanos);
+    update(errorRate, 1);
+    nextProbeNanos.set(System.nanoTime() + probeIntervalNanos);
+  }
+
+  /**
+   * Claims the next health probe of a degraded acquirer. At most one caller succeeds per probe
+   * interval, and every failure postpones the next probe by a full interval.
+   */
+  boolean tryClaimProbe(long nowNanos) {
+    long next = nextProbeNanos.get();
+    return nowNanos - next >= 0 && nextProbeNanos.compareAndSet(next, nowNanos + probeIntervalNanos);
+  }
+
+  private void update(AtomicLong average, double sample) {
+    long current;
+    long updated;
+    do {
+      current = average.get();
+      double value = Double.longBitsToDouble(current);
+      updated = Double.doubleToRawLongBits(value + alpha * (sample - value));
+    } while (!average.compareAndSet(current, updated));
+  }
+
+  @Override
+  public String toString() {
+    return "Acquirer{" +
+        "name='" + name + '\'' +
+        ", url='" + url + '\'' +
+        '}';
+  }
+}
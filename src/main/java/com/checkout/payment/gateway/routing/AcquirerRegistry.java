@@ -0,0 +1,63 @@
+package com.checkout.payment.gateway.routing;
+
+import com.checkout.payment.gateway.configuration.BankRoutingProperties;
+import com.checkout.payment.gateway.configuration.BankRoutingProperties.AcquirerProperties;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+@Component
+public class AcquirerRegistry {
+
+  static final String DEFAULT_ACQUIRER = "default";
+  static final String ALL_BINS = "0-9";
+
+  private final List<Acquirer> acquirers;
+  private final BinRangeTable binRanges;
+
+  public AcquirerRegistry(BankRoutingProperties properties,
+                          @Value("${bank.simulator.url}") String defaultUrl) {
+    List<AcquirerProperties> configured = properties.getAcquirers();
+    if (configured.isEmpty()) {
+      AcquirerProperties fallback = new AcquirerProperties();
+      fallback.setName(DEFAULT_ACQUIRER);
+      fallback.setUrl(defaultUrl);
+      fallback.setBinRanges(List.of(ALL_BINS));
+      configured = List.of(fallback);
+    }
+
+    List<Acquirer> acquirers = new ArrayList<>();
+    BinRangeTable.Builder binRanges = BinRangeTable.builder();
+    for (AcquirerProperties acquirer : configured) {
+      if (!StringUtils.hasText(acquirer.getName()) || !StringUtils.hasText(acquirer.getUrl())) {
+        throw new IllegalStateException("Acquirer requires a name and a url: " + acquirer);
+      }
+
+      int index = acquirers.size();
+      acquirers.add(new Acquirer(index, acquirer.getName(), acquirer.getUrl(),
+          properties.getEwmaAlpha(), properties.getProbeInterval().toNanos()));
+      List<String> ranges = acquirer.getBinRanges().isEmpty() ? List.of(ALL_BINS) : acquirer.getBinRanges();
+      ranges.forEach(range -> binRanges.add(range, index));
+    }
+
+    this.acquirers = Collections.unmodifiableList(acquirers);
+    this.binRanges = binRanges.build();
+  }
+
+  public List<Acquirer> getAcquirers() {
+    return acquirers;
+  }
+
+  public Acquirer get(int index) {
+    return acquirers.get(index);
+  }
+
+  /** Indexes of the acquirers accepting the card, see {@link BinRangeTable#lookup}. */
+  public int[] candidates(CharSequence cardNumber) {
+    return binRanges.lookup(cardNumber);
+  }
+}
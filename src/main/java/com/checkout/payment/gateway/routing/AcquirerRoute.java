@@ -0,0 +1,29 @@
+package com.checkout.payment.gateway.routing;
+
+/**
+ * Acquirers to try for one payment, in order. Each thread reuses a single instance sized for
+ * every configured acquirer, so routing allocates nothing; a route is only valid until the next
+ * call to {@link AcquirerRouter#route} on the same thread.
+ */
+public class AcquirerRoute {
+
+  final Acquirer[] acquirers;
+  final double[] scores;
+  int size;
+
+  AcquirerRoute(int capacity) {
+    this.acquirers = new Acquirer[capacity];
+    this.scores = new double[capacity];
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public Acquirer get(int i) {
+    if (i >= size) {
+      throw new IndexOutOfBoundsException(i);
+    }
+    return acquirers[i];
+  }
+}
@@ -0,0 +1,70 @@
+package com.checkout.payment.gateway.routing;
+
+import com.checkout.payment.gateway.configuration.BankRoutingProperties;
+
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Orders the acquirers accepting a card by expected time to a successful response.
+ *
+ * <p>Healthy acquirers come first, ranked by average latency inflated by their error rate.
+ * Degraded acquirers follow as a last resort, except for one request per probe interval which
+ * is sent to them first so that a recovered acquirer is noticed.
+ */
+@Component
+public class AcquirerRouter {
+
+  private final AcquirerRegistry registry;
+  private final double degradedErrorRate;
+  private final ThreadLocal<AcquirerRoute> routes;
+
+  public AcquirerRouter(AcquirerRegistry registry, BankRoutingProperties properties) {
+    this.registry = registry;
+    this.degradedErrorRate = properties.getDegradedErrorRate();
+    int capacity = registry.getAcquirers().size();
+    this.routes = ThreadLocal.withInitial(() -> new AcquirerRoute(capacity));
+  }
+
+  public List<Acquirer> getAcquirers() {
+    return registry.getAcquirers();
+  }
+
+  /**
+   * Returns the acquirers to try for the card in order, or an empty route if none accepts it.
+   * The route is this thread's scratch instance and is overwritten by its next call.
+   */
+  public AcquirerRoute route(CharSequence cardNumber) {
+    int[] candidates = registry.candidates(cardNumber);
+    AcquirerRoute scratch = routes.get();
+    Acquirer[] route = scratch.acquirers;
+    double[] scores = scratch.scores;
+    long now = System.nanoTime();
+
+    for (int i = 0; i < candidates.length; i++) {
+      Acquirer acquirer = registry.get(candidates[i]);
+      double score = score(acquirer, now);
+
+      // Insertion sort, there are only ever a handful of candidates.
+      int j = i;
+      while (j > 0 && scores[j - 1] > score) {
+        route[j] = route[j - 1];
+        scores[j] = scores[j - 1];
+        j--;
+      }
+      route[j] = acquirer;
+      scores[j] = score;
+    }
+    scratch.size = candidates.length;
+    return scratch;
+  }
+
+  private double score(Acquirer acquirer, long now) {
+    double errorRate = acquirer.getErrorRate();
+    if (errorRate >= degradedErrorRate) {
+      return acquirer.tryClaimProbe(now) ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+    }
+    return acquirer.getLatencyNanos() / (1 - errorRate);
+  }
+}
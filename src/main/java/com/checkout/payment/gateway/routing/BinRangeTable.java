@@ -0,0 +1,151 @@
+package com.checkout.payment.gateway.routing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Maps the BIN (first six digits) of a card number to the acquirers that accept it.
+ *
+ * <p>Configured ranges may overlap, so they are split into disjoint intervals held in sorted
+ * primitive arrays. A lookup is a binary search and does not allocate.
+ */
+public final class BinRangeTable {
+
+  static final int BIN_LENGTH = 6;
+
+  private static final int[] NONE = new int[0];
+
+  private final int[] starts;
+  private final int[] ends;
+  private final int[][] candidates;
+
+  private BinRangeTable(int[] starts, int[] ends, int[][] candidates) {
+    this.starts = starts;
+    this.ends = ends;
+    this.candidates = candidates;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Returns the indexes of the acquirers accepting the card, in configuration order. The returned
+   * array is shared and must not be modified.
+   */
+  public int[] lookup(CharSequence cardNumber) {
+    int bin = bin(cardNumber);
+    if (bin < 0) {
+      return NONE;
+    }
+
+    int i = Arrays.binarySearch(starts, bin);
+    if (i < 0) {
+      i = -i - 2;
+    }
+    if (i < 0 || bin > ends[i]) {
+      return NONE;
+    }
+    return candidates[i];
+  }
+
+  static int bin(CharSequence cardNumber) {
+    if (cardNumber == null || cardNumber.length() < BIN_LENGTH) {
+      return -1;
+    }
+
+    int bin = 0;
+    for (int i = 0; i < BIN_LENGTH; i++) {
+      int digit = cardNumber.charAt(i) - '0';
+      if (digit < 0 || digit > 9) {
+        return -1;
+      }
+      bin = bin * 10 + digit;
+    }
+    return bin;
+  }
+
+  public static final class Builder {
+
+    private final List<int[]> ranges = new ArrayList<>();
+
+    private Builder() {
+    }
+
+    /**
+     * Adds a range of BIN prefixes for an acquirer, either a single prefix ({@code "4"}) or an
+     * inclusive prefix range ({@code "51-55"}, {@code "400000-499999"}).
+     */
+    public Builder add(String range, int acquirerIndex) {
+      String[] bounds = range.trim().split("-", -1);
+      if (bounds.length > 2) {
+        throw new IllegalArgumentException("Invalid BIN range: " + range);
+      }
+
+      int start = pad(bounds[0].trim(), '0', range);
+      int end = pad(bounds[bounds.length - 1].trim(), '9', range);
+      if (start > end) {
+        throw new IllegalArgumentException("Invalid BIN range: " + range);
+      }
+
+      ranges.add(new int[]{start, end, acquirerIndex});
+      return this;
+    }
+
+    public BinRangeTable build() {
+      TreeSet<Integer> boundaries = new TreeSet<>();
+      for (int[] range : ranges) {
+        boundaries.add(range[0]);
+        boundaries.add(range[1] + 1);
+      }
+
+      List<int[]> intervals = new ArrayList<>();
+      List<int[]> intervalCandidates = new ArrayList<>();
+      Integer start = boundaries.isEmpty() ? null : boundaries.first();
+      while (start != null) {
+        Integer next = boundaries.higher(start);
+        if (next == null) {
+          break;
+        }
+
+        int[] covering = covering(start, next - 1);
+        if (covering.length > 0) {
+          intervals.add(new int[]{start, next - 1});
+          intervalCandidates.add(covering);
+        }
+        start = next;
+      }
+
+      int size = intervals.size();
+      int[] starts = new int[size];
+      int[] ends = new int[size];
+      for (int i = 0; i < size; i++) {
+        starts[i] = intervals.get(i)[0];
+        ends[i] = intervals.get(i)[1];
+      }
+      return new BinRangeTable(starts, ends, intervalCandidates.toArray(new int[0][]));
+    }
+
+    private int[] covering(int start, int end) {
+      return ranges.stream()
+          .filter(range -> range[0] <= start && end <= range[1])
+          .mapToInt(range -> range[2])
+          .distinct()
+          .toArray();
+    }
+
+    private static int pad(String prefix, char fill, String range) {
+      if (prefix.isEmpty() || prefix.length() > BIN_LENGTH || !prefix.chars().allMatch(Character::isDigit)) {
+        throw new IllegalArgumentException("Invalid BIN range: " + range);
+      }
+
+      StringBuilder bin = new StringBuilder(prefix);
+      while (bin.length() < BIN_LENGTH) {
+        bin.append(fill);
+      }
+      return Integer.parseInt(bin.toString());
+    }
+  }
+}
@@ -0,0 +1,99 @@
+package com.checkout.payment.gateway.service;
+
+import com.checkout.payment.gateway.exception.RecordingInProgressException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Takes time-boxed JFR recordings of the running node on demand. Only one recording can be in
+ * progress at a time.
+ */
+@Service
+public class FlightRecordingService {
+
+  private static final Logger LOG = LoggerFactory.getLogger(FlightRecordingService.class);
+
+  private final String settings;
+  private final Duration maxDuration;
+  private final AtomicBoolean inProgress = new AtomicBoolean();
+
+  public FlightRecordingService(@Value("${admin.recording.settings:profile}") String settings,
+                                @Value("${admin.recording.max-duration:5m}") Duration maxDuration) {
+    this.settings = settings;
+    this.maxDuration = maxDuration;
+  }
+
+  /** Starts a recording, failing fast if another one is in progress. */
+  public Recording start() throws IOException, ParseException {
+    if (!inProgress.compareAndSet(false, true)) {
+      throw new RecordingInProgressException("A recording is already in progress");
+    }
+
+    try {
+      Recording recording = new Recording(Configuration.getConfiguration(settings));
+      recording.setName("payment-gateway-on-demand");
+      recording.setToDisk(true);
+      recording.start();
+      LOG.info("Started JFR recording {}", recording.getId());
+      return recording;
+    } catch (IOException | ParseException | RuntimeException e) {
+      inProgress.set(false);
+      throw e;
+    }
+  }
+
+  /**
+   * Lets the recording run for the given duration, capped at the configured maximum, then writes
+   * it to the output stream and discards it. The recording is discarded even if this fails.
+   */
+  public void finish(Recording recording, Duration duration, OutputStream out) throws IOException {
+    Path file = null;
+    try {
+      file = Files.createTempFile("payment-gateway-", ".jfr");
+      Thread.sleep(clamp(duration).toMillis());
+      recording.stop();
+      recording.dump(file);
+      Files.copy(file, out);
+      LOG.info("Streamed JFR recording {} of {} bytes", recording.getId(), Files.size(file));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while recording", e);
+    } finally {
+      try {
+        if (file != null) {
+          Files.deleteIfExists(file);
+        }
+      } finally {
+        discard(recording);
+      }
+    }
+  }
+
+  /** Closes a recording that will not be finished, so that the next one can start. */
+  public void discard(Recording recording) {
+    try {
+      recording.close();
+    } finally {
+      inProgress.set(false);
+    }
+  }
+
+  private Duration clamp(Duration duration) {
+    if (duration.isNegative() || duration.isZero()) {
+      return Duration.ofSeconds(1);
+    }
+    return duration.compareTo(maxDuration) > 0 ? maxDuration : duration;
+  }
+}
@@ -2,18 +2,39 @@ package com.checkout.payment.gateway.service;
 
 import com.checkout.payment.gateway.client.BankClient;
 import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.exception.AuthorizationCapacityException;
+import com.checkout.payment.gateway.exception.BankOutcomeUnknownException;
+import com.checkout.payment.gateway.exception.CallbackUrlNotAllowedException;
+import com.checkout.payment.gateway.exception.CardNotAcceptedException;
 import com.checkout.payment.gateway.exception.EventProcessingException;
+import com.checkout.payment.gateway.jfr.PaymentStageEvent;
 import com.checkout.payment.gateway.model.BankPaymentRequest;
 import com.checkout.payment.gateway.model.BankPaymentResponse;
 import com.checkout.payment.gateway.model.PostPaymentRequest;
 import com.checkout.payment.gateway.model.PostPaymentResponse;
 import com.checkout.payment.gateway.repository.PaymentsRepository;
+import com.checkout.payment.gateway.stream.PaymentEventStream;
+import com.checkout.payment.gateway.warmup.WarmupContext;
+import com.checkout.payment.gateway.webhook.CallbackUrlPolicy;
+import com.checkout.payment.gateway.webhook.WebhookDispatcher;
 
+import jakarta.annotation.PreDestroy;
+
+import java.time.Duration;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -25,35 +46,223 @@ public class PaymentGatewayService {
 
   private final PaymentsRepository paymentsRepository;
 
+  private final PaymentEventStream paymentEventStream;
+
+  private final WebhookDispatcher webhookDispatcher;
+
+  private final CallbackUrlPolicy callbackUrlPolicy;
+
+  private final WarmupContext warmupContext;
+
+  private final ExecutorService authorizationExecutor;
+
+  private final Semaphore asyncPermits;
+
+  private final ScheduledExecutorService resolutionScheduler;
+
+  private final int resolutionAttempts;
+
+  private final Duration resolutionBackoff;
+
   public PaymentGatewayService(BankClient bankClient, 
-                               PaymentsRepository paymentsRepository) {
+                               PaymentsRepository paymentsRepository,
+                               PaymentEventStream paymentEventStream,
+                               WebhookDispatcher webhookDispatcher,
+                               CallbackUrlPolicy callbackUrlPolicy,
+                               WarmupContext warmupContext,
+                               @Value("${payments.async.worker-threads:16}") int workerThreads,
+                               @Value("${payments.async.max-pending:1000}") int maxPending,
+                               @Value("${payments.async.resolution-attempts:3}") int resolutionAttempts,
+                               @Value("${payments.async.resolution-backoff:10s}") Duration resolutionBackoff) {
     this.bankClient = bankClient;
     this.paymentsRepository = paymentsRepository;
+    this.paymentEventStream = paymentEventStream;
+    this.webhookDispatcher = webhookDispatcher;
+    this.callbackUrlPolicy = callbackUrlPolicy;
+    this.warmupContext = warmupContext;
+    this.asyncPermits = new Semaphore(maxPending);
+    this.resolutionAttempts = resolutionAttempts;
+    this.resolutionBackoff = resolutionBackoff;
+
+    AtomicInteger threads = new AtomicInteger();
+    this.authorizationExecutor = Executors.newFixedThreadPool(workerThreads,
+        runnable -> new Thread(runnable, "authorization-" + threads.incrementAndGet()));
+    this.resolutionScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "payment-resolution");
+      thread.setDaemon(true);
+      return thread;
+    });
   }
 
   public PostPaymentResponse getPaymentById(UUID id) {
     LOG.info("Requesting access to payment with ID {}", id);
-    return paymentsRepository.get(id).orElseThrow(() -> new EventProcessingException("Invalid ID"));
+    PaymentStageEvent event = PaymentStageEvent.start(PaymentStageEvent.REPOSITORY);
+    Optional<PostPaymentResponse> payment = paymentsRepository.get(id);
+    event.complete(id, payment.isPresent() ? "found" : "not-found", "read");
+    return payment.orElseThrow(() -> new EventProcessingException("Invalid ID"));
   }
 
   public PostPaymentResponse processPayment(PostPaymentRequest request) {
-    BankPaymentRequest bankPaymentRequest = 
-        BankPaymentRequest.builder()
+    return authorize(UUID.randomUUID(), request);
+  }
+
+  /**
+   * Stores the payment as pending and authorizes it in the background. The final outcome is
+   * delivered to the request's callback URL.
+   *
+   * <p>If the bank's answer is lost, the payment is sent again to the same acquirer with the same
+   * idempotency key, up to {@code payments.async.resolution-attempts} times with doubling backoff.
+   * If the outcome is still unknown after that, the payment is marked failed. It keeps its permit
+   * until then, so unresolved payments count against {@code payments.async.max-pending}.
+   *
+   * @throws CallbackUrlNotAllowedException if payments must not be sent to the callback URL
+   * @throws CardNotAcceptedException if no acquirer accepts the card
+   * @throws AuthorizationCapacityException if too many payments are already waiting on the bank
+   */
+  public PostPaymentResponse acceptPayment(PostPaymentRequest request) {
+    callbackUrlPolicy.check(request.getCallbackUrl());
+    bankClient.checkAccepted(request.getCardNumber());
+    if (!asyncPermits.tryAcquire()) {
+      throw new AuthorizationCapacityException("Too many payments awaiting authorization");
+    }
+
+    UUID paymentId = UUID.randomUUID();
+    PostPaymentResponse pending = new PostPaymentResponse(paymentId, request, PaymentStatus.PENDING);
+    store(pending);
+    LOG.info("Accepted payment with id {} for asynchronous authorization", paymentId);
+
+    try {
+      authorizationExecutor.execute(() -> authorizeAsync(paymentId, request));
+    } catch (RuntimeException e) {
+      asyncPermits.release();
+      throw e;
+    }
+    return pending;
+  }
+
+  private void authorizeAsync(UUID paymentId, PostPaymentRequest request) {
+    PostPaymentResponse payment;
+    try {
+      payment = authorize(paymentId, request);
+    } catch (BankOutcomeUnknownException e) {
+      // The bank may have authorized it: only the same acquirer, given the same key, may be asked again.
+      LOG.warn("Outcome of payment with id {} unknown, asking acquirer {} again", paymentId, e.getAcquirer(), e);
+      scheduleResolution(paymentId, request, e.getAcquirer(), 1);
+      return;
+    } catch (RuntimeException e) {
+      LOG.error("Unable to authorize payment with id {}", paymentId, e);
+      fail(paymentId, request);
+      return;
+    }
+    complete(request, payment);
+  }
+
+  private void resolveAsync(UUID paymentId, PostPaymentRequest request, String acquirer, int attempt) {
+    PostPaymentResponse payment;
+    try {
+      payment = toPayment(paymentId, request, bankClient.resendPayment(bankRequest(paymentId, request), acquirer));
+      store(payment);
+      LOG.info("Resolved payment with id {} through acquirer {} after {} attempts", paymentId, acquirer, attempt);
+    } catch (RuntimeException e) {
+      if (attempt < resolutionAttempts) {
+        LOG.warn("Outcome of payment with id {} still unknown after {} attempts", paymentId, attempt, e);
+        scheduleResolution(paymentId, request, acquirer, attempt + 1);
+        return;
+      }
+      LOG.error("Outcome of payment with id {} still unknown after {} attempts, marking it failed; "
+          + "acquirer {} may have authorized it", paymentId, attempt, acquirer, e);
+      fail(paymentId, request);
+      return;
+    }
+    complete(request, payment);
+  }
+
+  private void scheduleResolution(UUID paymentId, PostPaymentRequest request, String acquirer, int attempt) {
+    long backoff = resolutionBackoff.multipliedBy(1L << Math.min(attempt - 1, 30)).toMillis();
+    try {
+      resolutionScheduler.schedule(() -> {
+        try {
+          authorizationExecutor.execute(() -> resolveAsync(paymentId, request, acquirer, attempt));
+        } catch (RejectedExecutionException e) {
+          abandon(paymentId);
+        }
+      }, backoff, TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      abandon(paymentId);
+    }
+  }
+
+  private void abandon(UUID paymentId) {
+    asyncPermits.release();
+    LOG.error("Shutting down, payment with id {} left pending with unknown outcome", paymentId);
+  }
+
+  private void fail(UUID paymentId, PostPaymentRequest request) {
+    PostPaymentResponse payment = new PostPaymentResponse(paymentId, request, PaymentStatus.FAILED);
+    try {
+      store(payment);
+    } finally {
+      complete(request, payment);
+    }
+  }
+
+  private void complete(PostPaymentRequest request, PostPaymentResponse payment) {
+    try {
+      webhookDispatcher.enqueue(request.getCallbackUrl(), payment);
+    } finally {
+      asyncPermits.release();
+    }
+  }
+
+  private PostPaymentResponse authorize(UUID paymentId, PostPaymentRequest request) {
+    BankPaymentResponse bankPaymentResponse = bankClient.processPayment(bankRequest(paymentId, request));
+
+    PostPaymentResponse payment = toPayment(paymentId, request, bankPaymentResponse);
+    if (warmupContext.isActive()) {
+      return payment;
+    }
+    store(payment);
+
+    LOG.info("Processed payment with id {} through acquirer {}", payment.getId(), payment.getAcquirer());
+
+    return payment;
+  }
+
+  private static BankPaymentRequest bankRequest(UUID paymentId, PostPaymentRequest request) {
+    return BankPaymentRequest.builder()
           .cardNumber(request.getCardNumber())
           .expiryDate(request.getExpiryString())
           .currency(request.getCurrency())
           .amount(request.getAmount())
           .cvv(request.getCvv())
+          .paymentId(paymentId)
           .build();
+  }
 
-    BankPaymentResponse bankPaymentResponse = bankClient.processPayment(bankPaymentRequest);
-
+  private static PostPaymentResponse toPayment(UUID paymentId, PostPaymentRequest request,
+                                               BankPaymentResponse bankPaymentResponse) {
     PaymentStatus status = bankPaymentResponse.isAuthorized() ? PaymentStatus.AUTHORIZED : PaymentStatus.DECLINED;
-    PostPaymentResponse payment = new PostPaymentResponse(request, status);
-    paymentsRepository.add(payment);
+    PostPaymentResponse payment = new PostPaymentResponse(paymentId, request, status);
+    payment.setAcquirer(bankPaymentResponse.getAcquirer());
+    return payment;
+  }
 
-    LOG.info("Processed payment with id {}", payment.getId());
+  private void store(PostPaymentResponse payment) {
+    PaymentStageEvent event = PaymentStageEvent.start(PaymentStageEvent.REPOSITORY);
+    paymentsRepository.add(payment);
+    event.complete(payment.getId(), "stored", "write");
+    paymentEventStream.publish(payment);
+  }
 
-    return payment;
+  @PreDestroy
+  public void shutdown() throws InterruptedException {
+    int unresolved = resolutionScheduler.shutdownNow().size();
+    if (unresolved > 0) {
+      LOG.warn("{} payments with unknown outcome left pending at shutdown", unresolved);
+    }
+    authorizationExecutor.shutdown();
+    if (!authorizationExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+      LOG.warn("Payments still awaiting authorization at shutdown");
+    }
   }
 }
@@ -0,0 +1,7 @@
+package com.checkout.payment.gateway.stream;
+
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+
+/** A stored payment and its position in the change stream, used as the SSE event ID. */
+public record PaymentEvent(long sequence, PostPaymentResponse payment) {
+}
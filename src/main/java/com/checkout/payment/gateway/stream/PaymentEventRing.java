@@ -0,0 +1,68 @@
+package com.checkout.payment.gateway.stream;
+
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded ring of the most recent payment events. Publishing never blocks or waits for readers:
+ * it overwrites the oldest slot, and a reader whose cursor was overwritten has fallen behind.
+ *
+ * <p>Sequences start at 1 and increase by one per published payment.
+ */
+public class PaymentEventRing {
+
+  private final int mask;
+  private final AtomicReferenceArray<PaymentEvent> slots;
+  private final AtomicLong nextSequence = new AtomicLong(1);
+
+  public PaymentEventRing(int capacity) {
+    if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+    }
+    this.mask = capacity - 1;
+    this.slots = new AtomicReferenceArray<>(capacity);
+  }
+
+  public int capacity() {
+    return mask + 1;
+  }
+
+  public PaymentEvent publish(PostPaymentResponse payment) {
+    PaymentEvent event = new PaymentEvent(nextSequence.getAndIncrement(), payment);
+    int slot = (int) (event.sequence() & mask);
+
+    // Two publishers a full lap apart may race for the same slot; the newer event must win.
+    PaymentEvent current;
+    do {
+      current = slots.get(slot);
+      if (current != null && current.sequence() > event.sequence()) {
+        break;
+      }
+    } while (!slots.compareAndSet(slot, current, event));
+    return event;
+  }
+
+  /** Sequence the next published payment will get. */
+  public long nextSequence() {
+    return nextSequence.get();
+  }
+
+  /** Oldest sequence that can still be read. */
+  public long oldestSequence() {
+    return Math.max(1, nextSequence.get() - capacity());
+  }
+
+  /**
+   * Returns the event at the sequence, {@code null} if it is not published yet, or an event with a
+   * greater sequence if it was already overwritten.
+   */
+  public PaymentEvent get(long sequence) {
+    PaymentEvent event = slots.get((int) (sequence & mask));
+    if (event == null || event.sequence() < sequence) {
+      return null;
+    }
+    return event;
+  }
+}
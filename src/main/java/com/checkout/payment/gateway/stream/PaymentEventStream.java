@@ -0,0 +1,233 @@
+package com.checkout.payment.gateway.stream;
+
+import com.checkout.payment.gateway.exception.StreamCapacityException;
+import com.checkout.payment.gateway.exception.StreamCursorExpiredException;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+
+import jakarta.annotation.PreDestroy;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes stored payments to SSE subscribers.
+ *
+ * <p>Payment processing only appends to the ring and flags subscribers as having work. Each
+ * subscriber is drained by at most one task at a time, on a pool that grows with the number of
+ * subscribers, so a client that stops reading holds up its own thread and nobody else's.
+ *
+ * <p>A subscriber is disconnected as soon as a publish overwrites its cursor, or when a single
+ * write blocks for longer than the write timeout, in which case its sender thread is interrupted.
+ * The emitter is completed by the subscriber's drain task, never by the publishing thread, since
+ * completing waits for a send in progress. A disconnected subscriber can resume with
+ * {@code Last-Event-ID} as long as that event is still in the ring.
+ *
+ * <p>Sequences restart with every process, so event IDs are {@code <epoch>-<sequence>}, the epoch
+ * being random per process. An ID from another process, e.g. before a restart or from another
+ * node behind the same load balancer, is refused rather than resumed at an unrelated event.
+ */
+@Component
+public class PaymentEventStream {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PaymentEventStream.class);
+  private static final String EVENT_NAME = "payment";
+  private static final char EPOCH_SEPARATOR = '-';
+
+  private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() >>> 1, Character.MAX_RADIX);
+  private final PaymentEventRing ring;
+  private final List<PaymentStreamSubscriber> subscribers = new CopyOnWriteArrayList<>();
+  private final ExecutorService senders;
+  private final ScheduledExecutorService watchdog;
+  private final int maxSubscribers;
+  private final long timeoutMillis;
+  private final long writeTimeoutNanos;
+  private final int batchSize;
+
+  public PaymentEventStream(@Value("${payments.stream.ring-capacity:65536}") int ringCapacity,
+                            @Value("${payments.stream.max-subscribers:64}") int maxSubscribers,
+                            @Value("${payments.stream.timeout:30m}") Duration timeout,
+                            @Value("${payments.stream.write-timeout:10s}") Duration writeTimeout,
+                            @Value("${payments.stream.batch-size:256}") int batchSize) {
+    this.ring = new PaymentEventRing(ringCapacity);
+    this.maxSubscribers = maxSubscribers;
+    this.timeoutMillis = timeout.toMillis();
+    this.writeTimeoutNanos = writeTimeout.toNanos();
+    this.batchSize = batchSize;
+
+    AtomicInteger threads = new AtomicInteger();
+    this.senders = Executors.newCachedThreadPool(runnable -> {
+      Thread thread = new Thread(runnable, "payment-stream-" + threads.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "payment-stream-watchdog");
+      thread.setDaemon(true);
+      return thread;
+    });
+    long checkMillis = Math.max(1, writeTimeout.toMillis() / 2);
+    watchdog.scheduleAtFixedRate(this::interruptStalledSends, checkMillis, checkMillis,
+        TimeUnit.MILLISECONDS);
+  }
+
+  public void publish(PostPaymentResponse payment) {
+    PaymentEvent event = ring.publish(payment);
+    for (PaymentStreamSubscriber subscriber : subscribers) {
+      if (event.sequence() - subscriber.cursor() >= ring.capacity()) {
+        evict(subscriber, "fell a full ring behind");
+      } else {
+        schedule(subscriber);
+      }
+    }
+  }
+
+  /**
+   * Opens a stream starting after {@code lastEventId}, or with the next stored payment if it is
+   * null.
+   *
+   * @throws StreamCursorExpiredException if the requested event is no longer in the ring or was
+   *                                      not sent by this process
+   * @throws StreamCapacityException if {@code payments.stream.max-subscribers} are connected
+   */
+  public SseEmitter subscribe(String lastEventId) {
+    return subscribe(lastEventId, new SseEmitter(timeoutMillis));
+  }
+
+  SseEmitter subscribe(String lastEventId, SseEmitter emitter) {
+    long cursor = lastEventId == null ? ring.nextSequence() : sequenceOf(lastEventId) + 1;
+    if (cursor < ring.oldestSequence() || cursor > ring.nextSequence()) {
+      throw new StreamCursorExpiredException("Event " + lastEventId + " is no longer available");
+    }
+    if (subscribers.size() >= maxSubscribers) {
+      throw new StreamCapacityException(maxSubscribers + " stream subscribers already connected");
+    }
+
+    PaymentStreamSubscriber subscriber = new PaymentStreamSubscriber(emitter, cursor);
+    emitter.onCompletion(() -> remove(subscriber));
+    emitter.onTimeout(() -> remove(subscriber));
+    emitter.onError(e -> remove(subscriber));
+
+    subscribers.add(subscriber);
+    schedule(subscriber);
+    return emitter;
+  }
+
+  int subscriberCount() {
+    return subscribers.size();
+  }
+
+  String eventId(long sequence) {
+    return epoch + EPOCH_SEPARATOR + sequence;
+  }
+
+  private long sequenceOf(String eventId) {
+    int separator = eventId.lastIndexOf(EPOCH_SEPARATOR);
+    if (separator < 0 || !epoch.equals(eventId.substring(0, separator))) {
+      throw new StreamCursorExpiredException("Event " + eventId + " was not sent by this process");
+    }
+    try {
+      return Long.parseLong(eventId.substring(separator + 1));
+    } catch (NumberFormatException e) {
+      throw new StreamCursorExpiredException("Event " + eventId + " is not a valid event ID");
+    }
+  }
+
+  private void schedule(PaymentStreamSubscriber subscriber) {
+    if (subscriber.trySchedule()) {
+      senders.execute(() -> drain(subscriber));
+    }
+  }
+
+  private void drain(PaymentStreamSubscriber subscriber) {
+    try {
+      for (int sent = 0; sent < batchSize && !subscriber.isClosed(); sent++) {
+        PaymentEvent event = ring.get(subscriber.cursor());
+        if (event == null) {
+          break;
+        }
+        if (event.sequence() != subscriber.cursor()) {
+          evict(subscriber, "fell a full ring behind");
+          break;
+        }
+
+        subscriber.sending(System.nanoTime());
+        try {
+          subscriber.emitter().send(SseEmitter.event()
+              .id(eventId(event.sequence()))
+              .name(EVENT_NAME)
+              .data(event.payment(), MediaType.APPLICATION_JSON));
+        } finally {
+          subscriber.sent();
+        }
+        subscriber.advance();
+      }
+    } catch (IOException | IllegalStateException e) {
+      LOG.debug("Stream subscriber disconnected", e);
+      remove(subscriber);
+    } finally {
+      subscriber.drained();
+    }
+
+    if (subscriber.isClosed()) {
+      if (subscriber.isEvicted() && subscriber.tryComplete()) {
+        subscriber.emitter().complete();
+      }
+      return;
+    }
+    // Pick up events published after the last read, or the rest of a full batch.
+    if (ring.get(subscriber.cursor()) != null) {
+      schedule(subscriber);
+    }
+  }
+
+  private void interruptStalledSends() {
+    long startedBefore = System.nanoTime() - writeTimeoutNanos;
+    for (PaymentStreamSubscriber subscriber : subscribers) {
+      if (subscriber.isSendStartedBefore(startedBefore)) {
+        evict(subscriber, "write blocked for more than " + Duration.ofNanos(writeTimeoutNanos));
+        subscriber.interruptSend();
+      }
+    }
+  }
+
+  /**
+   * Closes the subscriber and schedules its drain task to complete the emitter; if a drain is
+   * already running, it completes the emitter once it returns.
+   */
+  private void evict(PaymentStreamSubscriber subscriber, String reason) {
+    if (subscriber.evict()) {
+      subscribers.remove(subscriber);
+      LOG.warn("Disconnecting stream subscriber at event {}: {}", subscriber.cursor(), reason);
+      schedule(subscriber);
+    }
+  }
+
+  private void remove(PaymentStreamSubscriber subscriber) {
+    subscriber.close();
+    subscribers.remove(subscriber);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    subscribers.forEach(subscriber -> {
+      remove(subscriber);
+      subscriber.emitter().complete();
+    });
+    watchdog.shutdownNow();
+    senders.shutdownNow();
+  }
+}
@@ -0,0 +1,103 @@
+package com.checkout.payment.gateway.stream;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * A connected SSE client and its own cursor into the {@link PaymentEventRing}. The cursor is
+ * only advanced by the single drain task that may be scheduled for the subscriber at a time, but
+ * read by publishers to spot a subscriber that fell behind.
+ */
+class PaymentStreamSubscriber {
+
+  private final SseEmitter emitter;
+  private final AtomicBoolean scheduled = new AtomicBoolean();
+  private final AtomicBoolean evicted = new AtomicBoolean();
+  private final AtomicBoolean completed = new AtomicBoolean();
+  private volatile boolean closed;
+  private volatile long cursor;
+
+  // Guarded by sendLock, so that a stalled send is never confused with a later one on the same
+  // sender thread.
+  private final Object sendLock = new Object();
+  private Thread sender;
+  private long sendStartedNanos;
+
+  PaymentStreamSubscriber(SseEmitter emitter, long cursor) {
+    this.emitter = emitter;
+    this.cursor = cursor;
+  }
+
+  SseEmitter emitter() {
+    return emitter;
+  }
+
+  long cursor() {
+    return cursor;
+  }
+
+  void advance() {
+    cursor++;
+  }
+
+  /** Returns true if the caller should schedule a drain, false if one is already pending. */
+  boolean trySchedule() {
+    return scheduled.compareAndSet(false, true);
+  }
+
+  void drained() {
+    scheduled.set(false);
+  }
+
+  boolean isClosed() {
+    return closed;
+  }
+
+  void close() {
+    closed = true;
+  }
+
+  /** Closes the subscriber on the gateway's side; returns false if it was already evicted. */
+  boolean evict() {
+    closed = true;
+    return evicted.compareAndSet(false, true);
+  }
+
+  boolean isEvicted() {
+    return evicted.get();
+  }
+
+  /** Returns true the first time only, for the caller to complete the emitter. */
+  boolean tryComplete() {
+    return completed.compareAndSet(false, true);
+  }
+
+  void sending(long nanos) {
+    synchronized (sendLock) {
+      sender = Thread.currentThread();
+      sendStartedNanos = nanos;
+    }
+  }
+
+  void sent() {
+    synchronized (sendLock) {
+      sender = null;
+      // Drop an interrupt aimed at this send that arrived just as it finished.
+      Thread.interrupted();
+    }
+  }
+
+  boolean isSendStartedBefore(long nanos) {
+    synchronized (sendLock) {
+      return sender != null && sendStartedNanos - nanos < 0;
+    }
+  }
+
+  void interruptSend() {
+    synchronized (sendLock) {
+      if (sender != null) {
+        sender.interrupt();
+      }
+    }
+  }
+}
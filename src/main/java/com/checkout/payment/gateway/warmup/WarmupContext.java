@@ -0,0 +1,49 @@
+package com.checkout.payment.gateway.warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import org.springframework.stereotype.Component;
+
+/**
+ * Marks the synthetic payments sent during warm-up. They are recognised by a random token that
+ * only this process knows, and flagged on the request thread so that the bank call can take the
+ * dry-run route and the payment is never stored.
+ */
+@Component
+public class WarmupContext {
+
+  public static final String TOKEN_HEADER = "X-Warmup-Token";
+
+  private final ThreadLocal<Boolean> active = ThreadLocal.withInitial(() -> false);
+  private final byte[] token;
+
+  public WarmupContext() {
+    byte[] random = new byte[32];
+    new SecureRandom().nextBytes(random);
+    this.token = HexFormat.of().formatHex(random).getBytes(StandardCharsets.US_ASCII);
+  }
+
+  String token() {
+    return new String(token, StandardCharsets.US_ASCII);
+  }
+
+  boolean matches(String candidate) {
+    return candidate != null
+        && MessageDigest.isEqual(token, candidate.getBytes(StandardCharsets.US_ASCII));
+  }
+
+  /** Whether the current thread is processing a synthetic warm-up payment. */
+  public boolean isActive() {
+    return active.get();
+  }
+
+  void enter() {
+    active.set(true);
+  }
+
+  void exit() {
+    active.remove();
+  }
+}
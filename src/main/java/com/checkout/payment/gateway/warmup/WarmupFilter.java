@@ -0,0 +1,36 @@
+package com.checkout.payment.gateway.warmup;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+@Component
+public class WarmupFilter extends OncePerRequestFilter {
+
+  private final WarmupContext warmupContext;
+
+  public WarmupFilter(WarmupContext warmupContext) {
+    this.warmupContext = warmupContext;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    if (!warmupContext.matches(request.getHeader(WarmupContext.TOKEN_HEADER))) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+
+    warmupContext.enter();
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      warmupContext.exit();
+    }
+  }
+}
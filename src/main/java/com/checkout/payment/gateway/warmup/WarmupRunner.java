@@ -0,0 +1,138 @@
+package com.checkout.payment.gateway.warmup;
+
+import com.checkout.payment.gateway.client.BankConnectionPool;
+import com.checkout.payment.gateway.enums.SupportedCurrency;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.checkout.payment.gateway.routing.AcquirerRouter;
+
+import java.time.Duration;
+import java.time.Year;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Warms up a fresh node before it reports ready. Spring Boot only switches readiness to
+ * ACCEPTING_TRAFFIC once all application runners have returned, so the node stays out of the
+ * load balancer while this runs.
+ *
+ * <p>Synthetic payments are sent over HTTP to the node itself so that Jackson binding,
+ * validation, the controller and the service all get compiled. They carry the
+ * {@link WarmupContext} token, which sends them down the dry-run bank route and keeps them out of
+ * the repository.
+ *
+ * <p>Last, {@code warmup.bank-connections} connections are opened to every acquirer, so that the
+ * first real payments do not wait for TCP and TLS handshakes.
+ */
+@Component
+public class WarmupRunner implements ApplicationRunner {
+
+  private static final Logger LOG = LoggerFactory.getLogger(WarmupRunner.class);
+
+  private final ApplicationContext applicationContext;
+  private final WarmupContext warmupContext;
+  private final AcquirerRouter router;
+  private final BankConnectionPool bankConnectionPool;
+  private final RestTemplate restTemplate;
+  private final boolean enabled;
+  private final int iterations;
+  private final int concurrency;
+  private final Duration timeout;
+  private final int bankConnections;
+
+  public WarmupRunner(ApplicationContext applicationContext,
+                      WarmupContext warmupContext,
+                      AcquirerRouter router,
+                      BankConnectionPool bankConnectionPool,
+                      RestTemplateBuilder restTemplateBuilder,
+                      @Value("${warmup.enabled:false}") boolean enabled,
+                      @Value("${warmup.iterations:10000}") int iterations,
+                      @Value("${warmup.concurrency:4}") int concurrency,
+                      @Value("${warmup.timeout:60s}") Duration timeout,
+                      @Value("${warmup.bank-connections:8}") int bankConnections) {
+    this.applicationContext = applicationContext;
+    this.warmupContext = warmupContext;
+    this.router = router;
+    this.bankConnectionPool = bankConnectionPool;
+    this.restTemplate = restTemplateBuilder.build();
+    this.enabled = enabled;
+    this.iterations = iterations;
+    this.concurrency = concurrency;
+    this.timeout = timeout;
+    this.bankConnections = bankConnections;
+  }
+
+  @Override
+  public void run(ApplicationArguments args) throws InterruptedException {
+    if (!enabled || !(applicationContext instanceof WebServerApplicationContext webContext)) {
+      return;
+    }
+
+    long start = System.nanoTime();
+
+    String url = "http://localhost:" + webContext.getWebServer().getPort() + "/payment";
+    HttpHeaders headers = new HttpHeaders();
+    headers.set(WarmupContext.TOKEN_HEADER, warmupContext.token());
+
+    AtomicInteger remaining = new AtomicInteger(iterations);
+    AtomicInteger failures = new AtomicInteger();
+    ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+    for (int i = 0; i < concurrency; i++) {
+      workers.execute(() -> {
+        while (remaining.getAndDecrement() > 0 && !Thread.currentThread().isInterrupted()) {
+          try {
+            restTemplate.postForEntity(url, new HttpEntity<>(syntheticPayment(), headers), String.class);
+          } catch (RestClientException e) {
+            failures.incrementAndGet();
+          }
+        }
+      });
+    }
+    workers.shutdown();
+
+    boolean completed = workers.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    int sent = iterations - Math.max(remaining.getAndSet(0), 0);
+    workers.shutdownNow();
+    LOG.info("Warm-up {} after {} ms: {} synthetic payments, {} failed",
+        completed ? "completed" : "timed out",
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+        sent, failures.get());
+
+    bankConnectionPool.open(router.getAcquirers(), bankConnections);
+  }
+
+  private static PostPaymentRequest syntheticPayment() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    SupportedCurrency[] currencies = SupportedCurrency.values();
+
+    StringBuilder cardNumber = new StringBuilder();
+    int length = random.nextInt(14, 20);
+    for (int i = 0; i < length; i++) {
+      cardNumber.append((char) ('0' + random.nextInt(10)));
+    }
+
+    return PostPaymentRequest.builder()
+        .cardNumber(cardNumber.toString())
+        .expiryMonth(random.nextInt(1, 13))
+        .expiryYear(Year.now().getValue() + random.nextInt(1, 10))
+        .currency(currencies[random.nextInt(currencies.length)].name())
+        .amount(random.nextLong(1, 100_000))
+        .cvv(Integer.toString(random.nextInt(100, 10_000)))
+        .build();
+  }
+}
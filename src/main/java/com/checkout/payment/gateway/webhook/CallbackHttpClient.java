@@ -0,0 +1,60 @@
+package com.checkout.payment.gateway.webhook;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import org.apache.hc.client5.http.DnsResolver;
+import org.apache.hc.client5.http.SystemDefaultDnsResolver;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.Timeout;
+
+/**
+ * Builds the HTTP client for callback deliveries. It is separate from the bank client and has
+ * short timeouts, so that a few slow merchant endpoints cannot hold every sender thread for the
+ * bank's timeouts.
+ *
+ * <p>Hosts are resolved through {@link CallbackUrlPolicy#resolve} when a connection is opened,
+ * rather than checked first and resolved again by the client. Redirects are not followed.
+ */
+final class CallbackHttpClient {
+
+  private CallbackHttpClient() {
+  }
+
+  static CloseableHttpClient create(CallbackUrlPolicy policy, Duration connectTimeout, Duration readTimeout,
+                                    int maxConnections) {
+    DnsResolver resolver = new DnsResolver() {
+      @Override
+      public InetAddress[] resolve(String host) throws UnknownHostException {
+        return policy.resolve(host);
+      }
+
+      @Override
+      public String resolveCanonicalHostname(String host) throws UnknownHostException {
+        return SystemDefaultDnsResolver.INSTANCE.resolveCanonicalHostname(host);
+      }
+    };
+
+    return HttpClients.custom()
+        .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+            .setDnsResolver(resolver)
+            .setMaxConnTotal(maxConnections)
+            .setMaxConnPerRoute(maxConnections)
+            .setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeout.toMillis()))
+                .setSocketTimeout(Timeout.ofMilliseconds(readTimeout.toMillis()))
+                .build())
+            .build())
+        .setDefaultRequestConfig(RequestConfig.custom()
+            .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectTimeout.toMillis()))
+            .setResponseTimeout(Timeout.ofMilliseconds(readTimeout.toMillis()))
+            .build())
+        .disableRedirectHandling()
+        .disableAutomaticRetries()
+        .build();
+  }
+}
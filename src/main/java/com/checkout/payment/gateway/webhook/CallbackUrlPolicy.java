@@ -0,0 +1,114 @@
+package com.checkout.payment.gateway.webhook;
+
+import com.checkout.payment.gateway.exception.CallbackUrlNotAllowedException;
+
+import java.net.Inet4Address;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.UnknownHostException;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Decides which callback URLs the gateway may send payments to, so that a merchant cannot make it
+ * call the management port or any other internal service.
+ *
+ * <p>Unless {@code webhooks.allow-private-addresses} is set, every address the host resolves to
+ * must be public: loopback, private, shared (100.64.0.0/10), link-local (which includes cloud
+ * metadata endpoints), unspecified, multicast and IPv6 unique local addresses are refused. With
+ * {@code webhooks.allowed-hosts} set, the host must also be one of those.
+ *
+ * <p>URLs are checked when the payment is accepted and again before every delivery, as the host
+ * may have been pointed elsewhere in the meantime. The callback client also resolves hosts through
+ * {@link #resolve} when it connects, so it only ever connects to addresses that passed the check.
+ */
+@Component
+public class CallbackUrlPolicy {
+
+  private final boolean allowPrivateAddresses;
+  private final Set<String> allowedHosts;
+
+  public CallbackUrlPolicy(@Value("${webhooks.allow-private-addresses:false}") boolean allowPrivateAddresses,
+                           @Value("${webhooks.allowed-hosts:}") Set<String> allowedHosts) {
+    this.allowPrivateAddresses = allowPrivateAddresses;
+    this.allowedHosts = allowedHosts.stream()
+        .map(host -> host.trim().toLowerCase(Locale.ROOT))
+        .filter(host -> !host.isEmpty())
+        .collect(Collectors.toUnmodifiableSet());
+  }
+
+  /**
+   * @throws CallbackUrlNotAllowedException if payments must not be sent to the URL
+   */
+  public void check(String callbackUrl) {
+    URI uri;
+    try {
+      uri = new URI(callbackUrl);
+    } catch (URISyntaxException e) {
+      throw new CallbackUrlNotAllowedException("Malformed callback URL " + callbackUrl);
+    }
+    String scheme = uri.getScheme();
+    String host = uri.getHost();
+    if ((!"http".equalsIgnoreCase(scheme) && !"https".equalsIgnoreCase(scheme)) || host == null) {
+      throw new CallbackUrlNotAllowedException("Callback URL must be an http or https URL: " + callbackUrl);
+    }
+    if (!allowedHosts.isEmpty() && !allowedHosts.contains(host.toLowerCase(Locale.ROOT))) {
+      throw new CallbackUrlNotAllowedException("Callback host " + host + " is not allowed");
+    }
+    if (allowPrivateAddresses) {
+      return;
+    }
+    try {
+      resolve(host);
+    } catch (UnknownHostException e) {
+      throw new CallbackUrlNotAllowedException(e.getMessage());
+    }
+  }
+
+  /**
+   * Resolves a callback host, failing unless payments may be sent to every address it resolves
+   * to. The callback client connects to the returned addresses, so the host cannot be pointed at
+   * an internal address between the check and the connection.
+   *
+   * @throws UnknownHostException if the host is unknown or payments must not be sent to it
+   */
+  public InetAddress[] resolve(String host) throws UnknownHostException {
+    if (!allowedHosts.isEmpty() && !allowedHosts.contains(host.toLowerCase(Locale.ROOT))) {
+      throw new UnknownHostException("Callback host " + host + " is not allowed");
+    }
+
+    InetAddress[] addresses;
+    try {
+      addresses = InetAddress.getAllByName(host);
+    } catch (UnknownHostException e) {
+      throw new UnknownHostException("Unknown callback host " + host);
+    }
+    if (allowPrivateAddresses) {
+      return addresses;
+    }
+    for (InetAddress address : addresses) {
+      if (isInternal(address)) {
+        throw new UnknownHostException(
+            "Callback host " + host + " resolves to internal address " + address.getHostAddress());
+      }
+    }
+    return addresses;
+  }
+
+  static boolean isInternal(InetAddress address) {
+    if (address.isLoopbackAddress() || address.isSiteLocalAddress() || address.isLinkLocalAddress()
+        || address.isAnyLocalAddress() || address.isMulticastAddress()) {
+      return true;
+    }
+    byte[] bytes = address.getAddress();
+    if (address instanceof Inet4Address) {
+      return (bytes[0] & 0xff) == 100 && (bytes[1] & 0xc0) == 64;
+    }
+    return address instanceof Inet6Address && (bytes[0] & 0xfe) == 0xfc;
+  }
+}
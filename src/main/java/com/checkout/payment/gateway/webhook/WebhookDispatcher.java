@@ -0,0 +1,225 @@
+package com.checkout.payment.gateway.webhook;
+
+import com.checkout.payment.gateway.exception.CallbackUrlNotAllowedException;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.io.CloseMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Delivers final payment outcomes to merchant callback URLs.
+ *
+ * <p>Payments wait in a bounded outbox and are flushed periodically as JSON arrays, one batch per
+ * callback URL. Failed batches are retried with exponential backoff until the attempt limit.
+ * Pending retries count against the outbox capacity, so a failing merchant endpoint cannot make
+ * the gateway hold on to an unbounded number of payments.
+ *
+ * <p>Each batch carries {@value #SIGNATURE_HEADER}: {@code t=<unix seconds>,v1=<hex>}, where
+ * {@code v1} is the HMAC-SHA256 of {@code <t>.<body>} under {@code webhooks.signing-secret}. The
+ * signature is recomputed for every attempt, so merchants can reject old timestamps as replays.
+ * The URL is checked against the {@link CallbackUrlPolicy} before every attempt.
+ *
+ * <p>Deliveries use their own HTTP client, see {@link CallbackHttpClient}, with at most one
+ * connection per sender thread and the {@code webhooks.connect-timeout} and
+ * {@code webhooks.read-timeout} timeouts.
+ */
+@Component
+public class WebhookDispatcher {
+
+  public static final String SIGNATURE_HEADER = "X-Webhook-Signature";
+
+  private static final Logger LOG = LoggerFactory.getLogger(WebhookDispatcher.class);
+  private static final String SIGNATURE_ALGORITHM = "HmacSHA256";
+
+  private final CloseableHttpClient httpClient;
+  private final RestTemplate restTemplate;
+  private final ObjectMapper objectMapper;
+  private final CallbackUrlPolicy callbackUrlPolicy;
+  private final SecretKeySpec signingKey;
+  private final int capacity;
+  private final int batchSize;
+  private final int maxAttempts;
+  private final Duration initialBackoff;
+  private final Duration maxBackoff;
+
+  private final LinkedBlockingQueue<WebhookDelivery> outbox = new LinkedBlockingQueue<>();
+  private final AtomicInteger pending = new AtomicInteger();
+  private final ScheduledExecutorService scheduler;
+  private final ExecutorService senders;
+
+  public WebhookDispatcher(ObjectMapper objectMapper,
+                           CallbackUrlPolicy callbackUrlPolicy,
+                           @Value("${webhooks.signing-secret}") String signingSecret,
+                           @Value("${webhooks.outbox-capacity:10000}") int capacity,
+                           @Value("${webhooks.batch-size:50}") int batchSize,
+                           @Value("${webhooks.max-attempts:5}") int maxAttempts,
+                           @Value("${webhooks.initial-backoff:1s}") Duration initialBackoff,
+                           @Value("${webhooks.max-backoff:1m}") Duration maxBackoff,
+                           @Value("${webhooks.flush-interval:200ms}") Duration flushInterval,
+                           @Value("${webhooks.sender-threads:4}") int senderThreads,
+                           @Value("${webhooks.connect-timeout:2s}") Duration connectTimeout,
+                           @Value("${webhooks.read-timeout:5s}") Duration readTimeout) {
+    this.httpClient = CallbackHttpClient.create(callbackUrlPolicy, connectTimeout, readTimeout, senderThreads);
+    this.restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+    this.objectMapper = objectMapper;
+    this.callbackUrlPolicy = callbackUrlPolicy;
+    this.signingKey = new SecretKeySpec(signingSecret.getBytes(StandardCharsets.UTF_8), SIGNATURE_ALGORITHM);
+    this.capacity = capacity;
+    this.batchSize = batchSize;
+    this.maxAttempts = maxAttempts;
+    this.initialBackoff = initialBackoff;
+    this.maxBackoff = maxBackoff;
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(threads("webhook-scheduler"));
+    this.senders = Executors.newFixedThreadPool(senderThreads, threads("webhook-sender"));
+
+    long flushMillis = flushInterval.toMillis();
+    scheduler.scheduleWithFixedDelay(this::flush, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Queues the payment for delivery to the callback URL.
+   *
+   * @return false if the outbox is full and the payment will not be delivered
+   */
+  public boolean enqueue(String callbackUrl, PostPaymentResponse payment) {
+    if (pending.incrementAndGet() > capacity) {
+      pending.decrementAndGet();
+      LOG.error("Webhook outbox full, dropping callback for payment {}", payment.getId());
+      return false;
+    }
+    outbox.add(new WebhookDelivery(callbackUrl, payment));
+    return true;
+  }
+
+  void flush() {
+    List<WebhookDelivery> drained = new ArrayList<>();
+    outbox.drainTo(drained);
+    if (drained.isEmpty()) {
+      return;
+    }
+
+    Map<String, List<PostPaymentResponse>> byEndpoint = new LinkedHashMap<>();
+    for (WebhookDelivery delivery : drained) {
+      List<PostPaymentResponse> batch = byEndpoint.computeIfAbsent(delivery.callbackUrl(), url -> new ArrayList<>());
+      batch.add(delivery.payment());
+      if (batch.size() == batchSize) {
+        submit(delivery.callbackUrl(), batch, 1);
+        byEndpoint.remove(delivery.callbackUrl());
+      }
+    }
+    byEndpoint.forEach((url, batch) -> submit(url, batch, 1));
+  }
+
+  private void submit(String url, List<PostPaymentResponse> batch, int attempt) {
+    senders.execute(() -> send(url, batch, attempt));
+  }
+
+  private void send(String url, List<PostPaymentResponse> batch, int attempt) {
+    byte[] body;
+    try {
+      callbackUrlPolicy.check(url);
+      body = objectMapper.writeValueAsBytes(batch);
+    } catch (CallbackUrlNotAllowedException | JsonProcessingException e) {
+      pending.addAndGet(-batch.size());
+      LOG.error("Not delivering {} payments to {}", batch.size(), url, e);
+      return;
+    }
+
+    try {
+      HttpHeaders headers = new HttpHeaders();
+      headers.setContentType(MediaType.APPLICATION_JSON);
+      long timestamp = Instant.now().getEpochSecond();
+      headers.set(SIGNATURE_HEADER, "t=" + timestamp + ",v1=" + sign(timestamp, body));
+      restTemplate.postForEntity(url, new HttpEntity<>(body, headers), Void.class);
+      pending.addAndGet(-batch.size());
+      LOG.info("Delivered {} payments to {}", batch.size(), url);
+    } catch (RestClientException e) {
+      if (attempt >= maxAttempts) {
+        pending.addAndGet(-batch.size());
+        LOG.error("Giving up delivering {} payments to {} after {} attempts", batch.size(), url, attempt, e);
+        return;
+      }
+
+      long backoff = backoff(attempt).toMillis();
+      LOG.warn("Delivery of {} payments to {} failed, retrying in {} ms", batch.size(), url, backoff, e);
+      try {
+        scheduler.schedule(() -> submit(url, batch, attempt + 1), backoff, TimeUnit.MILLISECONDS);
+      } catch (RejectedExecutionException shutdown) {
+        pending.addAndGet(-batch.size());
+        LOG.error("Dropping {} payments to {} on shutdown", batch.size(), url);
+      }
+    }
+  }
+
+  private String sign(long timestamp, byte[] body) {
+    try {
+      Mac mac = Mac.getInstance(SIGNATURE_ALGORITHM);
+      mac.init(signingKey);
+      mac.update((timestamp + ".").getBytes(StandardCharsets.UTF_8));
+      return HexFormat.of().formatHex(mac.doFinal(body));
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("Unable to sign webhook", e);
+    }
+  }
+
+  private Duration backoff(int attempt) {
+    Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempt - 1, 30));
+    return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+  }
+
+  @PreDestroy
+  public void shutdown() throws InterruptedException {
+    scheduler.shutdownNow();
+    flush();
+    senders.shutdown();
+    if (!senders.awaitTermination(10, TimeUnit.SECONDS)) {
+      LOG.warn("{} webhook deliveries still pending at shutdown", pending.get());
+    }
+    httpClient.close(CloseMode.IMMEDIATE);
+  }
+
+  private static ThreadFactory threads(String prefix) {
+    AtomicInteger count = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable, prefix + "-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  private record WebhookDelivery(String callbackUrl, PostPaymentResponse payment) {
+  }
+}
@@ -0,0 +1,267 @@
+package com.checkout.payment.gateway.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.checkout.payment.gateway.configuration.BankRoutingProperties;
+import com.checkout.payment.gateway.configuration.BankRoutingProperties.AcquirerProperties;
+import com.checkout.payment.gateway.exception.BankOutcomeUnknownException;
+import com.checkout.payment.gateway.exception.BankServiceException;
+import com.checkout.payment.gateway.exception.CardNotAcceptedException;
+import com.checkout.payment.gateway.model.BankPaymentRequest;
+import com.checkout.payment.gateway.model.BankPaymentResponse;
+import com.checkout.payment.gateway.routing.AcquirerRegistry;
+import com.checkout.payment.gateway.routing.AcquirerRouter;
+import com.checkout.payment.gateway.warmup.WarmupContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+class BankClientTest {
+
+  private static final String AUTHORIZED = "{\"authorized\":true,\"authorization_code\":\"abc\"}";
+
+  private final List<HttpServer> simulators = new ArrayList<>();
+  private final List<AutoCloseable> sockets = new ArrayList<>();
+
+  @AfterEach
+  void stopSimulators() throws Exception {
+    simulators.forEach(server -> server.stop(0));
+    for (AutoCloseable socket : sockets) {
+      socket.close();
+    }
+  }
+
+  @Test
+  void whenCardMatchesBinRangeThenRoutedToThatAcquirer() throws IOException {
+    AtomicInteger visaCalls = new AtomicInteger();
+    AtomicInteger mastercardCalls = new AtomicInteger();
+    BankClient client = bankClient(
+        acquirer("visa", simulator(200, AUTHORIZED, visaCalls), "4"),
+        acquirer("mastercard", simulator(200, AUTHORIZED, mastercardCalls), "51-55"));
+
+    assertThat(client.processPayment(request("4111111111111111")).getAcquirer()).isEqualTo("visa");
+    assertThat(client.processPayment(request("5311111111111111")).getAcquirer()).isEqualTo("mastercard");
+    assertThat(visaCalls.get()).isEqualTo(1);
+    assertThat(mastercardCalls.get()).isEqualTo(1);
+
+    assertThatThrownBy(() -> client.processPayment(request("6011111111111111")))
+        .isInstanceOf(CardNotAcceptedException.class);
+  }
+
+  @Test
+  void whenSeveralAcquirersAcceptCardThenConfigurationOrderBreaksTie() throws IOException {
+    AtomicInteger primaryCalls = new AtomicInteger();
+    AtomicInteger visaCalls = new AtomicInteger();
+    BankClient client = bankClient(
+        acquirer("primary", simulator(200, AUTHORIZED, primaryCalls), "0-9"),
+        acquirer("visa", simulator(200, AUTHORIZED, visaCalls), "4"));
+
+    // Both accept the BIN and neither has latency yet, so configuration order decides.
+    BankPaymentResponse response = client.processPayment(request("4111111111111111"));
+    assertThat(response.getAcquirer()).isEqualTo("primary");
+
+    response = client.processPayment(request("5111111111111111"));
+    assertThat(response.isAuthorized()).isTrue();
+    assertThat(response.getAcquirer()).isEqualTo("primary");
+    assertThat(visaCalls.get()).isZero();
+  }
+
+  @Test
+  void whenAcquirerReturnsServerErrorThenNextAcquirerUsed() throws IOException {
+    AtomicInteger failingCalls = new AtomicInteger();
+    AtomicInteger healthyCalls = new AtomicInteger();
+    BankClient client = bankClient(
+        acquirer("failing", simulator(503, "{}", failingCalls), "0-9"),
+        acquirer("healthy", simulator(200, AUTHORIZED, healthyCalls), "0-9"));
+
+    BankPaymentResponse response = client.processPayment(request("4111111111111111"));
+
+    assertThat(response.getAcquirer()).isEqualTo("healthy");
+    assertThat(failingCalls.get()).isEqualTo(1);
+
+    // The failing acquirer is now degraded and only receives the occasional probe.
+    for (int i = 0; i < 5; i++) {
+      client.processPayment(request("4111111111111111"));
+    }
+    assertThat(failingCalls.get()).isEqualTo(1);
+    assertThat(healthyCalls.get()).isEqualTo(6);
+  }
+
+  @Test
+  void whenAcquirerRejectsRequestThenHealthUnaffected() throws IOException {
+    AtomicInteger rejectingCalls = new AtomicInteger();
+    AtomicInteger otherCalls = new AtomicInteger();
+    BankClient client = bankClient(
+        acquirer("rejecting", simulator(400, "{}", rejectingCalls), "0-9"),
+        acquirer("other", simulator(200, AUTHORIZED, otherCalls), "0-9"));
+
+    for (int i = 0; i < 5; i++) {
+      assertThatThrownBy(() -> client.processPayment(request("4111111111111111")))
+          .isInstanceOf(BankServiceException.class);
+    }
+
+    // A 4xx is not failed over and does not degrade the acquirer, so it stays first in line.
+    assertThat(rejectingCalls.get()).isEqualTo(5);
+    assertThat(otherCalls.get()).isZero();
+  }
+
+  @Test
+  void whenConnectTimesOutThenNextAcquirerUsed() throws IOException {
+    AtomicInteger healthyCalls = new AtomicInteger();
+    BankClient client = bankClient(restTemplate(200),
+        acquirer("blackholed", blackholed(), "0-9"),
+        acquirer("healthy", simulator(200, AUTHORIZED, healthyCalls), "0-9"));
+
+    // The bank was never reached, so failing over cannot authorize the payment twice.
+    assertThat(client.processPayment(request("4111111111111111")).getAcquirer()).isEqualTo("healthy");
+    assertThat(healthyCalls.get()).isEqualTo(1);
+  }
+
+  @Test
+  void whenReadTimesOutThenOutcomeUnknownAndResentWithSameIdempotencyKey() throws IOException {
+    List<String> keys = new CopyOnWriteArrayList<>();
+    AtomicInteger otherCalls = new AtomicInteger();
+    String slow = simulator(exchange -> {
+      keys.add(exchange.getRequestHeaders().getFirst(BankClient.IDEMPOTENCY_KEY_HEADER));
+      if (keys.size() == 1) {
+        sleep(500);
+      }
+      respond(exchange, 200, AUTHORIZED);
+    });
+    BankClient client = bankClient(restTemplate(200),
+        acquirer("slow", slow, "0-9"),
+        acquirer("other", simulator(200, AUTHORIZED, otherCalls), "0-9"));
+    BankPaymentRequest request = request("4111111111111111");
+    request.setPaymentId(UUID.randomUUID());
+
+    assertThatThrownBy(() -> client.processPayment(request))
+        .isInstanceOf(BankOutcomeUnknownException.class)
+        .hasFieldOrPropertyWithValue("acquirer", "slow");
+    assertThat(otherCalls.get()).isZero();
+
+    BankPaymentResponse response = client.resendPayment(request, "slow");
+    assertThat(response.isAuthorized()).isTrue();
+    assertThat(keys).containsExactly(request.getPaymentId().toString(), request.getPaymentId().toString());
+  }
+
+  @Test
+  void whenAllAcquirersFailThenBankServiceExceptionThrown() throws IOException {
+    BankClient client = bankClient(
+        acquirer("first", simulator(503, "{}", new AtomicInteger()), "0-9"),
+        acquirer("second", simulator(502, "{}", new AtomicInteger()), "0-9"));
+
+    assertThatThrownBy(() -> client.processPayment(request("4111111111111111")))
+        .isInstanceOf(BankServiceException.class);
+  }
+
+  private BankClient bankClient(AcquirerProperties... acquirers) {
+    return bankClient(new RestTemplate(), acquirers);
+  }
+
+  private BankClient bankClient(RestTemplate restTemplate, AcquirerProperties... acquirers) {
+    BankRoutingProperties properties = new BankRoutingProperties();
+    properties.setDegradedErrorRate(0.1);
+    properties.setAcquirers(List.of(acquirers));
+    AcquirerRegistry registry = new AcquirerRegistry(properties, "http://localhost:1");
+    return new BankClient(restTemplate, new AcquirerRouter(registry, properties),
+        new WarmupContext(), new ObjectMapper());
+  }
+
+  private String simulator(int status, String body, AtomicInteger calls) throws IOException {
+    return simulator(exchange -> {
+      calls.incrementAndGet();
+      respond(exchange, status, body);
+    });
+  }
+
+  private String simulator(HttpHandler handler) throws IOException {
+    HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/payments", handler);
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.start();
+    simulators.add(server);
+    return "http://localhost:" + server.getAddress().getPort();
+  }
+
+  private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(status, bytes.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(bytes);
+    }
+  }
+
+  /**
+   * An acquirer whose connects time out, like one behind a firewall dropping packets: a server
+   * that never accepts, with its accept queue already full.
+   */
+  private String blackholed() throws IOException {
+    ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+    sockets.add(server);
+    while (true) {
+      Socket socket = new Socket();
+      try {
+        socket.connect(server.getLocalSocketAddress(), 100);
+        sockets.add(socket);
+      } catch (SocketTimeoutException e) {
+        socket.close();
+        return "http://127.0.0.1:" + server.getLocalPort();
+      }
+    }
+  }
+
+  private static RestTemplate restTemplate(int timeoutMillis) {
+    SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+    requestFactory.setConnectTimeout(timeoutMillis);
+    requestFactory.setReadTimeout(timeoutMillis);
+    return new RestTemplate(requestFactory);
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static AcquirerProperties acquirer(String name, String url, String binRange) {
+    AcquirerProperties acquirer = new AcquirerProperties();
+    acquirer.setName(name);
+    acquirer.setUrl(url);
+    acquirer.setBinRanges(List.of(binRange));
+    return acquirer;
+  }
+
+  private static BankPaymentRequest request(String cardNumber) {
+    return BankPaymentRequest.builder()
+        .cardNumber(cardNumber)
+        .expiryDate("12/2099")
+        .currency("USD")
+        .amount(100L)
+        .cvv("123")
+        .build();
+  }
+}
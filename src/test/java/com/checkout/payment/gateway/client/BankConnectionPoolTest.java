@@ -0,0 +1,110 @@
+package com.checkout.payment.gateway.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.checkout.payment.gateway.routing.Acquirer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+class BankConnectionPoolTest {
+
+  private final BankConnectionPool pool = new BankConnectionPool(10, 10, Duration.ofMinutes(1),
+      Duration.ofSeconds(1), Duration.ofSeconds(1));
+  private final AtomicInteger accepted = new AtomicInteger();
+  private final ExecutorService connections = Executors.newCachedThreadPool();
+  private ServerSocket acquirer;
+
+  @BeforeEach
+  void startAcquirer() throws IOException {
+    acquirer = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+    connections.execute(() -> {
+      while (!acquirer.isClosed()) {
+        try {
+          Socket socket = acquirer.accept();
+          accepted.incrementAndGet();
+          connections.execute(() -> serve(socket));
+        } catch (IOException e) {
+          return;
+        }
+      }
+    });
+  }
+
+  @AfterEach
+  void stop() throws IOException {
+    pool.shutdown();
+    acquirer.close();
+    connections.shutdownNow();
+  }
+
+  @Test
+  void whenOpenedThenDistinctConnectionsReadyForPayments() {
+    Acquirer bank = new Acquirer(0, "bank", "http://127.0.0.1:" + acquirer.getLocalPort(), 0.2, 0);
+
+    pool.open(List.of(bank), 3);
+    await(() -> accepted.get() == 3);
+
+    RestTemplate restTemplate = new RestTemplate(pool.requestFactory());
+    for (int i = 0; i < 5; i++) {
+      assertThat(restTemplate.getForObject(bank.getUrl() + "/payments", String.class)).isEqualTo("{}");
+    }
+    assertThat(accepted.get()).isEqualTo(3);
+  }
+
+  @Test
+  void whenAcquirerUnreachableThenOtherAcquirersStillOpened() throws IOException {
+    int closedPort;
+    try (ServerSocket closed = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+      closedPort = closed.getLocalPort();
+    }
+    Acquirer down = new Acquirer(0, "down", "http://127.0.0.1:" + closedPort, 0.2, 0);
+    Acquirer bank = new Acquirer(1, "bank", "http://127.0.0.1:" + acquirer.getLocalPort(), 0.2, 0);
+
+    pool.open(List.of(down, bank), 2);
+
+    await(() -> accepted.get() == 2);
+  }
+
+  /** Answers every request on the connection with a 200 and keeps the connection open. */
+  private static void serve(Socket socket) {
+    try (socket) {
+      BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+      OutputStream out = socket.getOutputStream();
+      String line;
+      while ((line = in.readLine()) != null) {
+        if (line.isEmpty()) {
+          out.write("HTTP/1.1 200 OK\r\nContent-Type: application/json\r\nContent-Length: 2\r\n\r\n{}"
+              .getBytes(StandardCharsets.US_ASCII));
+          out.flush();
+        }
+      }
+    } catch (IOException e) {
+      // The client closed the connection.
+    }
+  }
+
+  private static void await(BooleanSupplier condition) {
+    long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+    while (!condition.getAsBoolean()) {
+      assertThat(System.nanoTime()).as("condition not met within 5s").isLessThan(deadline);
+      Thread.onSpinWait();
+    }
+  }
+}
@@ -0,0 +1,34 @@
+package com.checkout.payment.gateway.configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springdoc.core.configuration.SpringDocConfiguration;
+import org.springdoc.core.properties.SpringDocConfigProperties;
+import org.springframework.beans.factory.support.BeanDefinitionBuilder;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+
+class LazySpringdocPostProcessorTest {
+
+  @Test
+  void whenPostProcessedThenOnlySpringdocBeansAreLazy() {
+    DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+    beanFactory.registerBeanDefinition("springDocConfiguration", new RootBeanDefinition(SpringDocConfiguration.class));
+    RootBeanDefinition factoryMethodBean = new RootBeanDefinition();
+    factoryMethodBean.setFactoryBeanName("springDocConfiguration");
+    factoryMethodBean.setFactoryMethodName("openAPIBuilder");
+    beanFactory.registerBeanDefinition("openAPIBuilder", factoryMethodBean);
+    beanFactory.registerBeanDefinition("springDocConfigProperties",
+        BeanDefinitionBuilder.genericBeanDefinition(SpringDocConfigProperties.class).getBeanDefinition());
+    beanFactory.registerBeanDefinition("trainingRunListener",
+        BeanDefinitionBuilder.genericBeanDefinition(TrainingRunListener.class).getBeanDefinition());
+
+    new LazySpringdocPostProcessor().postProcessBeanFactory(beanFactory);
+
+    assertThat(beanFactory.getBeanDefinition("springDocConfiguration").isLazyInit()).isTrue();
+    assertThat(beanFactory.getBeanDefinition("openAPIBuilder").isLazyInit()).isTrue();
+    assertThat(beanFactory.getBeanDefinition("springDocConfigProperties").isLazyInit()).isTrue();
+    assertThat(beanFactory.getBeanDefinition("trainingRunListener").isLazyInit()).isFalse();
+  }
+}
@@ -0,0 +1,68 @@
+package com.checkout.payment.gateway.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.checkout.payment.gateway.export.PaymentExport;
+import com.checkout.payment.gateway.export.PaymentExporter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+class PaymentExportControllerTest {
+
+  @LocalServerPort
+  private int port;
+  @LocalManagementPort
+  private int managementPort;
+
+  @Autowired
+  private TestRestTemplate restTemplate;
+  @Autowired
+  private PaymentExporter paymentExporter;
+
+  @Test
+  void whenExportRequestedOnManagementPortThenCsvReturned() {
+    ResponseEntity<String> response = restTemplate.getForEntity(url("csv"), String.class);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(response.getBody()).startsWith("id,status,currency,amount");
+  }
+
+  @Test
+  void whenExportInProgressThenConflict() throws Exception {
+    try (PaymentExport export = paymentExporter.export()) {
+      ResponseEntity<String> response = restTemplate.getForEntity(url("totals"), String.class);
+      assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+    }
+  }
+
+  @Test
+  void whenFormatUnsupportedThenBadRequest() {
+    ResponseEntity<String> response = restTemplate.getForEntity(url("xml"), String.class);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    assertThat(response.getBody()).contains("Unsupported export format");
+  }
+
+  @Test
+  void whenExportRequestedOnApiPortThenNotFound() {
+    ResponseEntity<String> response = restTemplate.getForEntity(
+        "http://localhost:" + port + "/actuator/paymentexport", String.class);
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+
+    response = restTemplate.getForEntity("http://localhost:" + port + "/payments/export", String.class);
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+  }
+
+  private String url(String format) {
+    return "http://localhost:" + managementPort + "/actuator/paymentexport?format=" + format;
+  }
+}
@@ -2,23 +2,42 @@ package com.checkout.payment.gateway.controller;
 
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.hamcrest.Matchers.containsString;
+import static org.assertj.core.api.Assertions.assertThat;
 
 import com.checkout.payment.gateway.client.BankClient;
 import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.exception.BankOutcomeUnknownException;
 import com.checkout.payment.gateway.exception.BankServiceException;
+import com.checkout.payment.gateway.exception.CardNotAcceptedException;
 import com.checkout.payment.gateway.model.BankPaymentResponse;
 import com.checkout.payment.gateway.model.PostPaymentRequest;
 import com.checkout.payment.gateway.model.PostPaymentResponse;
 import com.checkout.payment.gateway.repository.PaymentsRepository;
+import com.checkout.payment.gateway.webhook.WebhookDispatcher;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
 
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
 import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -27,7 +46,8 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
-@SpringBootTest
+// The callback receivers below listen on localhost, which callbacks may not target by default.
+@SpringBootTest(properties = {"webhooks.allow-private-addresses=true", "payments.async.resolution-backoff=10ms"})
 @AutoConfigureMockMvc
 class PaymentGatewayControllerTest {
 
@@ -37,6 +57,8 @@ class PaymentGatewayControllerTest {
   PaymentsRepository paymentsRepository;
   @Autowired
   ObjectMapper objectMapper;
+  @Value("${webhooks.signing-secret}")
+  String signingSecret;
 
   @MockBean
   private BankClient bankClient;
@@ -115,6 +137,161 @@ class PaymentGatewayControllerTest {
         .andExpect(jsonPath("$.message", containsString("bank")));
   }
 
+  @Test
+  void whenNoAcquirerAcceptsCardThenBadRequestReturned() throws Exception {
+    PostPaymentRequest request = buildPaymentRequest();
+    when(bankClient.processPayment(any())).thenThrow(new CardNotAcceptedException("No acquirer accepts the card"));
+    mvc.perform(MockMvcRequestBuilders.post("/payment")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.message").value("Card not supported by any acquirer"));
+  }
+
+  @Test
+  void whenPaymentHasCallbackUrlThenAcceptedAndOutcomeDeliveredToCallback() throws Exception {
+    BlockingQueue<Callback> callbacks = new LinkedBlockingQueue<>();
+    HttpServer receiver = startCallbackReceiver(callbacks);
+
+    try {
+      PostPaymentRequest request = buildPaymentRequest();
+      request.setCallbackUrl("http://localhost:" + receiver.getAddress().getPort() + "/callback");
+      when(bankClient.processPayment(any())).thenReturn(buildBankPaymentResponse(true));
+
+      String response = mvc.perform(MockMvcRequestBuilders.post("/payment")
+              .contentType(MediaType.APPLICATION_JSON)
+              .content(objectMapper.writeValueAsString(request)))
+          .andExpect(status().isAccepted())
+          .andExpect(jsonPath("$.status").value("Pending"))
+          .andReturn().getResponse().getContentAsString();
+      String id = objectMapper.readTree(response).get("id").asText();
+
+      Callback callback = callbacks.poll(10, TimeUnit.SECONDS);
+      assertThat(callback.body()).contains(id).contains("Authorized");
+      assertThat(callback.signature()).matches("t=\\d+,v1=[0-9a-f]{64}");
+      String timestamp = callback.signature().substring(2, callback.signature().indexOf(','));
+      assertThat(callback.signature()).endsWith("v1=" + hmac(timestamp + "." + callback.body()));
+      mvc.perform(MockMvcRequestBuilders.get("/payment/" + id))
+          .andExpect(status().isOk())
+          .andExpect(jsonPath("$.status").value("Authorized"));
+    } finally {
+      receiver.stop(0);
+    }
+  }
+
+  @Test
+  void whenAsyncPaymentCannotBeProcessedByBankThenFailedDeliveredToCallback() throws Exception {
+    BlockingQueue<Callback> callbacks = new LinkedBlockingQueue<>();
+    HttpServer receiver = startCallbackReceiver(callbacks);
+
+    try {
+      PostPaymentRequest request = buildPaymentRequest();
+      request.setCallbackUrl("http://localhost:" + receiver.getAddress().getPort() + "/callback");
+      when(bankClient.processPayment(any())).thenThrow(new BankServiceException("Unreachable"));
+
+      String id = postAsync(request);
+
+      Callback callback = callbacks.poll(10, TimeUnit.SECONDS);
+      assertThat(callback.body()).contains(id).contains("Failed");
+      mvc.perform(MockMvcRequestBuilders.get("/payment/" + id))
+          .andExpect(status().isOk())
+          .andExpect(jsonPath("$.status").value("Failed"));
+    } finally {
+      receiver.stop(0);
+    }
+  }
+
+  @Test
+  void whenAsyncPaymentOutcomeUnknownThenResentToSameAcquirer() throws Exception {
+    BlockingQueue<Callback> callbacks = new LinkedBlockingQueue<>();
+    HttpServer receiver = startCallbackReceiver(callbacks);
+
+    try {
+      PostPaymentRequest request = buildPaymentRequest();
+      request.setCallbackUrl("http://localhost:" + receiver.getAddress().getPort() + "/callback");
+      when(bankClient.processPayment(any())).thenThrow(
+          new BankOutcomeUnknownException("Read timed out", "primary", new SocketTimeoutException()));
+      when(bankClient.resendPayment(any(), eq("primary")))
+          .thenThrow(new BankOutcomeUnknownException("Read timed out", "primary", new SocketTimeoutException()))
+          .thenReturn(buildBankPaymentResponse(true));
+
+      String id = postAsync(request);
+
+      Callback callback = callbacks.poll(10, TimeUnit.SECONDS);
+      assertThat(callback.body()).contains(id).contains("Authorized");
+      verify(bankClient, times(2)).resendPayment(any(), eq("primary"));
+      mvc.perform(MockMvcRequestBuilders.get("/payment/" + id))
+          .andExpect(status().isOk())
+          .andExpect(jsonPath("$.status").value("Authorized"));
+    } finally {
+      receiver.stop(0);
+    }
+  }
+
+  @Test
+  void whenAsyncPaymentOutcomeStaysUnknownThenFailedAfterLastAttempt() throws Exception {
+    BlockingQueue<Callback> callbacks = new LinkedBlockingQueue<>();
+    HttpServer receiver = startCallbackReceiver(callbacks);
+
+    try {
+      PostPaymentRequest request = buildPaymentRequest();
+      request.setCallbackUrl("http://localhost:" + receiver.getAddress().getPort() + "/callback");
+      when(bankClient.processPayment(any())).thenThrow(
+          new BankOutcomeUnknownException("Read timed out", "primary", new SocketTimeoutException()));
+      when(bankClient.resendPayment(any(), eq("primary"))).thenThrow(
+          new BankOutcomeUnknownException("Read timed out", "primary", new SocketTimeoutException()));
+
+      String id = postAsync(request);
+
+      Callback callback = callbacks.poll(10, TimeUnit.SECONDS);
+      assertThat(callback.body()).contains(id).contains("Failed");
+      verify(bankClient, times(3)).resendPayment(any(), eq("primary"));
+      mvc.perform(MockMvcRequestBuilders.get("/payment/" + id))
+          .andExpect(status().isOk())
+          .andExpect(jsonPath("$.status").value("Failed"));
+    } finally {
+      receiver.stop(0);
+    }
+  }
+
+  private String postAsync(PostPaymentRequest request) throws Exception {
+    String response = mvc.perform(MockMvcRequestBuilders.post("/payment")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isAccepted())
+        .andReturn().getResponse().getContentAsString();
+    return objectMapper.readTree(response).get("id").asText();
+  }
+
+  @Test
+  void whenCallbackUrlHasNoHostThenBadRequest() throws Exception {
+    PostPaymentRequest request = buildPaymentRequest();
+    request.setCallbackUrl("http://:8080/callback");
+    mvc.perform(MockMvcRequestBuilders.post("/payment")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.message").value("Callback URL not allowed"));
+  }
+
+  private String hmac(String signed) throws Exception {
+    Mac mac = Mac.getInstance("HmacSHA256");
+    mac.init(new SecretKeySpec(signingSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+    return HexFormat.of().formatHex(mac.doFinal(signed.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  private static HttpServer startCallbackReceiver(BlockingQueue<Callback> callbacks) throws IOException {
+    HttpServer receiver = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    receiver.createContext("/callback", exchange -> {
+      callbacks.add(new Callback(exchange.getRequestHeaders().getFirst(WebhookDispatcher.SIGNATURE_HEADER),
+          new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8)));
+      exchange.sendResponseHeaders(204, -1);
+      exchange.close();
+    });
+    receiver.start();
+    return receiver;
+  }
+
   private PostPaymentRequest buildPaymentRequest() {
     return PostPaymentRequest.builder()
             .cardNumber("12345678901235")
@@ -132,4 +309,7 @@ class PaymentGatewayControllerTest {
           .authorizationCode("xxx")
           .build();
   }
+
+  private record Callback(String signature, String body) {
+  }
 }
@@ -0,0 +1,50 @@
+package com.checkout.payment.gateway.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+class PaymentStreamControllerTest {
+
+  @LocalServerPort
+  private int port;
+  @LocalManagementPort
+  private int managementPort;
+
+  @Autowired
+  private TestRestTemplate restTemplate;
+
+  @Test
+  void whenResumedFromAnotherProcessOnManagementPortThenGone() {
+    HttpHeaders headers = new HttpHeaders();
+    headers.set("Last-Event-ID", "unknown-epoch-1");
+    ResponseEntity<String> response = restTemplate.exchange(
+        "http://localhost:" + managementPort + "/actuator/paymentstream", HttpMethod.GET,
+        new HttpEntity<>(headers), String.class);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.GONE);
+  }
+
+  @Test
+  void whenStreamRequestedOnApiPortThenNotFound() {
+    ResponseEntity<String> response = restTemplate.getForEntity(
+        "http://localhost:" + port + "/payments/stream", String.class);
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+
+    response = restTemplate.getForEntity(
+        "http://localhost:" + port + "/actuator/paymentstream", String.class);
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+  }
+}
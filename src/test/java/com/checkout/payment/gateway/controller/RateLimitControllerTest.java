@@ -0,0 +1,72 @@
+package com.checkout.payment.gateway.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.checkout.payment.gateway.configuration.RateLimitProperties;
+import com.checkout.payment.gateway.ratelimit.RateLimiter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+class RateLimitControllerTest {
+
+  @LocalServerPort
+  private int port;
+  @LocalManagementPort
+  private int managementPort;
+
+  @Autowired
+  private TestRestTemplate restTemplate;
+  @Autowired
+  private RateLimiter rateLimiter;
+
+  @Test
+  void whenLimitsReplacedOnManagementPortThenApplied() {
+    RateLimitProperties original = rateLimiter.getProperties();
+    RateLimitProperties properties = restTemplate.getForObject(url(), RateLimitProperties.class);
+    properties.getDefaults().getPost().setBurst(7);
+
+    try {
+      ResponseEntity<RateLimitProperties> response = restTemplate.exchange(
+          url(), HttpMethod.PUT, new HttpEntity<>(properties), RateLimitProperties.class);
+
+      assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+      assertThat(response.getBody().getDefaults().getPost().getBurst()).isEqualTo(7);
+      assertThat(rateLimiter.getProperties().getDefaults().getPost().getBurst()).isEqualTo(7);
+    } finally {
+      rateLimiter.reload(original);
+    }
+  }
+
+  @Test
+  void whenLimitsInvalidThenBadRequest() {
+    RateLimitProperties properties = restTemplate.getForObject(url(), RateLimitProperties.class);
+    properties.getDefaults().getPost().setBurst(0);
+
+    ResponseEntity<String> response = restTemplate.exchange(
+        url(), HttpMethod.PUT, new HttpEntity<>(properties), String.class);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+  }
+
+  @Test
+  void whenRequestedOnApiPortThenNotFound() {
+    ResponseEntity<String> response = restTemplate.getForEntity(
+        "http://localhost:" + port + "/actuator/ratelimits", String.class);
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+  }
+
+  private String url() {
+    return "http://localhost:" + managementPort + "/actuator/ratelimits";
+  }
+}
@@ -0,0 +1,71 @@
+package com.checkout.payment.gateway.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.checkout.payment.gateway.service.FlightRecordingService;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import jdk.jfr.Recording;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+class RecordingControllerTest {
+
+  @LocalServerPort
+  private int port;
+  @LocalManagementPort
+  private int managementPort;
+
+  @Autowired
+  private TestRestTemplate restTemplate;
+  @Autowired
+  private FlightRecordingService flightRecordingService;
+
+  @Test
+  void whenRecordingRequestedThenJfrFileIsStreamed() {
+    ResponseEntity<byte[]> response = restTemplate.postForEntity(
+        "http://localhost:" + managementPort + "/actuator/recordings?seconds=1", null, byte[].class);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    byte[] recording = response.getBody();
+    assertThat(new String(Arrays.copyOf(recording, 3), StandardCharsets.US_ASCII)).isEqualTo("FLR");
+  }
+
+  @Test
+  void whenRecordingInProgressThenConflict() throws Exception {
+    Recording recording = flightRecordingService.start();
+    try {
+      ResponseEntity<String> response = restTemplate.postForEntity(
+          "http://localhost:" + managementPort + "/actuator/recordings", null, String.class);
+      assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+    } finally {
+      flightRecordingService.finish(recording, Duration.ofMillis(1), OutputStream.nullOutputStream());
+    }
+  }
+
+  @Test
+  void whenRecordingDiscardedThenNextRecordingStarts() throws Exception {
+    flightRecordingService.discard(flightRecordingService.start());
+
+    Recording recording = flightRecordingService.start();
+    flightRecordingService.finish(recording, Duration.ofMillis(1), OutputStream.nullOutputStream());
+  }
+
+  @Test
+  void whenActuatorRequestedOnApiPortThenNotFound() {
+    ResponseEntity<String> response = restTemplate.getForEntity(
+        "http://localhost:" + port + "/actuator/health", String.class);
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+  }
+}
@@ -0,0 +1,136 @@
+package com.checkout.payment.gateway.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.enums.SupportedCurrency;
+import com.checkout.payment.gateway.exception.ExportInProgressException;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.checkout.payment.gateway.repository.PaymentsRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PaymentExporterTest {
+
+  private static final int PAYMENTS = 1000;
+
+  @TempDir
+  private Path directory;
+
+  private final PaymentsRepository repository = new PaymentsRepository();
+  private PaymentExporter exporter;
+
+  @AfterEach
+  void shutdown() {
+    exporter.shutdown();
+  }
+
+  @Test
+  void whenExportedAsCsvThenRowsGroupedByCurrencyAndStatus() throws IOException {
+    store();
+    exporter = exporter();
+
+    List<String> lines;
+    try (PaymentExport export = exporter.export()) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      export.writeTo(ExportFormat.CSV, out);
+      lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+
+    assertThat(lines).hasSize(PAYMENTS + 1);
+    assertThat(lines.get(0)).startsWith("id,status,currency,amount");
+    List<String> groups = lines.stream().skip(1)
+        .map(line -> line.split(",")[2] + "/" + line.split(",")[1])
+        .distinct()
+        .toList();
+    assertThat(groups).containsExactly("USD/Authorized", "USD/Declined", "GBP/Authorized",
+        "GBP/Declined", "CNY/Authorized", "CNY/Declined");
+    assertThat(Files.list(directory.resolve("work"))).isEmpty();
+  }
+
+  @Test
+  void whenExportedThenTotalsMatchStoredPayments() throws IOException {
+    store();
+    exporter = exporter();
+
+    try (PaymentExport export = exporter.export()) {
+      PaymentTotals totals = export.getTotals();
+      long count = 0;
+      long amount = 0;
+      for (SupportedCurrency currency : SupportedCurrency.values()) {
+        for (PaymentStatus status : PaymentStatus.values()) {
+          count += totals.getCount(currency, status);
+          amount += totals.getAmount(currency, status);
+        }
+      }
+      assertThat(count).isEqualTo(PAYMENTS);
+      assertThat(amount).isEqualTo((long) PAYMENTS * (PAYMENTS - 1) / 2);
+      assertThat(totals.getCount(SupportedCurrency.USD, PaymentStatus.AUTHORIZED)).isEqualTo(167);
+    }
+  }
+
+  @Test
+  void whenDailyExportRunsThenAllFilesWritten() throws IOException {
+    store();
+    exporter = exporter();
+
+    exporter.exportDaily(LocalDate.of(2026, 1, 31));
+
+    Path daily = directory.resolve("daily");
+    assertThat(Files.readAllLines(daily.resolve("payments-2026-01-31.csv"))).hasSize(PAYMENTS + 1);
+    assertThat(Files.readAllLines(daily.resolve("payments-2026-01-31.ndjson")))
+        .hasSize(PAYMENTS)
+        .allMatch(line -> line.startsWith("{\"id\":\"") && line.endsWith("}"));
+    assertThat(Files.readAllLines(daily.resolve("payment-totals-2026-01-31.csv")))
+        .startsWith("currency,status,count,amount")
+        .hasSize(7);
+  }
+
+  @Test
+  void whenExportInProgressThenAnotherExportRefusedUntilClosed() throws IOException {
+    store();
+    exporter = exporter();
+
+    try (PaymentExport export = exporter.export()) {
+      assertThatThrownBy(() -> exporter.export()).isInstanceOf(ExportInProgressException.class);
+    }
+
+    try (PaymentExport export = exporter.export()) {
+      assertThat(export.getTotals().getCount(SupportedCurrency.USD, PaymentStatus.AUTHORIZED)).isEqualTo(167);
+    }
+  }
+
+  private void store() {
+    SupportedCurrency[] currencies = SupportedCurrency.values();
+    for (int i = 0; i < PAYMENTS; i++) {
+      PostPaymentResponse payment = new PostPaymentResponse();
+      payment.setId(UUID.randomUUID());
+      payment.setStatus(i % 2 == 0 ? PaymentStatus.AUTHORIZED : PaymentStatus.DECLINED);
+      payment.setCurrency(currencies[i % 3].name());
+      payment.setCardNumberLastFour("0123");
+      payment.setExpiryMonth(12);
+      payment.setExpiryYear(2030);
+      payment.setAmount(i);
+      payment.setAcquirer("primary");
+      repository.add(payment);
+    }
+  }
+
+  private PaymentExporter exporter() {
+    // Small partitions so the scan is split across several fork-join tasks.
+    return new PaymentExporter(repository, 2, 64, directory.resolve("work"), false,
+        "0 0 2 * * *", ZoneId.of("UTC"), directory.resolve("daily"));
+  }
+}
@@ -0,0 +1,107 @@
+package com.checkout.payment.gateway.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.checkout.payment.gateway.configuration.RateLimitProperties;
+import com.checkout.payment.gateway.configuration.RateLimitProperties.ClientQuotas;
+import com.checkout.payment.gateway.configuration.RateLimitProperties.QuotaProperties;
+
+import java.time.Duration;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class RateLimiterTest {
+
+  private RateLimiter rateLimiter;
+
+  @AfterEach
+  void shutdown() {
+    rateLimiter.shutdown();
+  }
+
+  @Test
+  void whenBurstExhaustedThenRequestsRejected() {
+    rateLimiter = rateLimiter(properties(0.001, 3));
+
+    for (int remaining = 2; remaining >= 0; remaining--) {
+      RateLimitResult result = rateLimiter.tryAcquire("merchant", RateLimitedEndpoint.POST_PAYMENT);
+      assertThat(result.allowed()).isTrue();
+      assertThat(result.limit()).isEqualTo(3);
+      assertThat(result.remaining()).isEqualTo(remaining);
+    }
+
+    RateLimitResult rejected = rateLimiter.tryAcquire("merchant", RateLimitedEndpoint.POST_PAYMENT);
+    assertThat(rejected.allowed()).isFalse();
+    assertThat(rejected.waitNanos()).isPositive();
+  }
+
+  @Test
+  void whenOneQuotaExhaustedThenOtherClientsAndEndpointsUnaffected() {
+    rateLimiter = rateLimiter(properties(0.001, 1));
+
+    assertThat(rateLimiter.tryAcquire("merchant", RateLimitedEndpoint.POST_PAYMENT).allowed()).isTrue();
+    assertThat(rateLimiter.tryAcquire("merchant", RateLimitedEndpoint.POST_PAYMENT).allowed()).isFalse();
+
+    assertThat(rateLimiter.tryAcquire("merchant", RateLimitedEndpoint.GET_PAYMENT).allowed()).isTrue();
+    assertThat(rateLimiter.tryAcquire("other", RateLimitedEndpoint.POST_PAYMENT).allowed()).isTrue();
+  }
+
+  @Test
+  void whenLimitsReloadedThenClientOverrideApplied() {
+    rateLimiter = rateLimiter(properties(0.001, 1));
+    assertThat(rateLimiter.tryAcquire("merchant", RateLimitedEndpoint.POST_PAYMENT).allowed()).isTrue();
+    assertThat(rateLimiter.tryAcquire("merchant", RateLimitedEndpoint.POST_PAYMENT).allowed()).isFalse();
+
+    RateLimitProperties reloaded = properties(0.001, 1);
+    ClientQuotas quotas = new ClientQuotas();
+    quotas.setPost(new QuotaProperties(0.001, 5));
+    reloaded.setClients(Map.of("merchant", quotas));
+    rateLimiter.reload(reloaded);
+
+    RateLimitResult result = rateLimiter.tryAcquire("merchant", RateLimitedEndpoint.POST_PAYMENT);
+    assertThat(result.allowed()).isTrue();
+    assertThat(result.limit()).isEqualTo(5);
+  }
+
+  @Test
+  void whenMaxClientsReachedThenNewClientsShareOverflowBucket() {
+    RateLimitProperties properties = properties(0.001, 1);
+    properties.setMaxClients(1);
+    rateLimiter = rateLimiter(properties);
+
+    assertThat(rateLimiter.tryAcquire("first", RateLimitedEndpoint.POST_PAYMENT).allowed()).isTrue();
+    assertThat(rateLimiter.tryAcquire("second", RateLimitedEndpoint.POST_PAYMENT).allowed()).isTrue();
+    assertThat(rateLimiter.tryAcquire("third", RateLimitedEndpoint.POST_PAYMENT).allowed()).isFalse();
+  }
+
+  @Test
+  void whenBucketsRefilledThenSweepDropsThem() throws InterruptedException {
+    rateLimiter = rateLimiter(properties(20, 1));
+    rateLimiter.tryAcquire("first", RateLimitedEndpoint.POST_PAYMENT);
+    rateLimiter.tryAcquire("second", RateLimitedEndpoint.POST_PAYMENT);
+
+    rateLimiter.evictIdle();
+    assertThat(rateLimiter.trackedClients(RateLimitedEndpoint.POST_PAYMENT)).isEqualTo(2);
+
+    // A token comes back every 50ms.
+    Thread.sleep(100);
+    rateLimiter.evictIdle();
+    assertThat(rateLimiter.trackedClients(RateLimitedEndpoint.POST_PAYMENT)).isZero();
+  }
+
+  // The background sweep is left to the tests that call evictIdle() themselves.
+  private static RateLimiter rateLimiter(RateLimitProperties properties) {
+    return new RateLimiter(properties, Duration.ofDays(1));
+  }
+
+  private static RateLimitProperties properties(double requestsPerSecond, int burst) {
+    ClientQuotas defaults = new ClientQuotas();
+    defaults.setPost(new QuotaProperties(requestsPerSecond, burst));
+    defaults.setGet(new QuotaProperties(requestsPerSecond, burst));
+
+    RateLimitProperties properties = new RateLimitProperties();
+    properties.setDefaults(defaults);
+    return properties;
+  }
+}
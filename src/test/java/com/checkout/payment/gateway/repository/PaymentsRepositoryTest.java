@@ -0,0 +1,103 @@
+package com.checkout.payment.gateway.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+class PaymentsRepositoryTest {
+
+  private final PaymentsRepository repository = new PaymentsRepository();
+
+  @Test
+  void whenPaymentAddedThenReadBackWithAllFields() {
+    PostPaymentResponse payment = payment(PaymentStatus.AUTHORIZED, "0042", "visa");
+    repository.add(payment);
+
+    assertThat(repository.get(payment.getId())).contains(payment);
+    assertThat(repository.get(UUID.randomUUID())).isEmpty();
+  }
+
+  @Test
+  void whenPaymentAddedAgainThenOverwritten() {
+    PostPaymentResponse pending = payment(PaymentStatus.PENDING, "1234", null);
+    repository.add(pending);
+
+    PostPaymentResponse authorized = payment(PaymentStatus.AUTHORIZED, "1234", "primary");
+    authorized.setId(pending.getId());
+    repository.add(authorized);
+
+    assertThat(repository.get(pending.getId())).contains(authorized);
+    assertThat(repository.size()).isEqualTo(1);
+  }
+
+  @Test
+  void whenStoreGrowsBeyondOneChunkThenAllPaymentsFound() {
+    List<PostPaymentResponse> payments = new ArrayList<>();
+    for (int i = 0; i < 150_000; i++) {
+      PostPaymentResponse payment = payment(PaymentStatus.values()[i % 3], "9999", "acquirer-" + i % 4);
+      payment.setAmount(i);
+      payments.add(payment);
+      repository.add(payment);
+    }
+
+    assertThat(repository.size()).isEqualTo(payments.size());
+    payments.forEach(payment -> assertThat(repository.get(payment.getId())).contains(payment));
+  }
+
+  @Test
+  void whenWrittenConcurrentlyWhileScannedThenAllPaymentsFound() throws Exception {
+    int writers = 4;
+    int perWriter = 50_000;
+    ExecutorService executor = Executors.newFixedThreadPool(writers);
+    try {
+      List<Future<List<PostPaymentResponse>>> written = new ArrayList<>();
+      for (int w = 0; w < writers; w++) {
+        written.add(executor.submit(() -> {
+          List<PostPaymentResponse> payments = new ArrayList<>();
+          for (int i = 0; i < perWriter; i++) {
+            PostPaymentResponse payment = payment(PaymentStatus.PENDING, "0001", "acquirer-" + i % 4);
+            repository.add(payment);
+            payments.add(payment);
+          }
+          return payments;
+        }));
+      }
+
+      while (written.stream().anyMatch(future -> !future.isDone())) {
+        PaymentCursor cursor = repository.cursor(0, repository.size());
+        while (cursor.next()) {
+          assertThat(cursor.getId()).isNotNull();
+        }
+      }
+
+      assertThat(repository.size()).isEqualTo(writers * perWriter);
+      for (Future<List<PostPaymentResponse>> payments : written) {
+        payments.get().forEach(payment -> assertThat(repository.get(payment.getId())).contains(payment));
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private static PostPaymentResponse payment(PaymentStatus status, String lastFour, String acquirer) {
+    PostPaymentResponse payment = new PostPaymentResponse();
+    payment.setId(UUID.randomUUID());
+    payment.setStatus(status);
+    payment.setCardNumberLastFour(lastFour);
+    payment.setExpiryMonth(4);
+    payment.setExpiryYear(9999);
+    payment.setCurrency("GBP");
+    payment.setAmount(1050);
+    payment.setAcquirer(acquirer);
+    return payment;
+  }
+}
@@ -0,0 +1,44 @@
+package com.checkout.payment.gateway.routing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class BinRangeTableTest {
+
+  @Test
+  void whenRangesOverlapThenAllCoveringAcquirersReturnedInOrder() {
+    BinRangeTable table = BinRangeTable.builder()
+        .add("0-9", 0)
+        .add("4", 1)
+        .add("51-55", 2)
+        .build();
+
+    assertThat(table.lookup("4111111111111111")).containsExactly(0, 1);
+    assertThat(table.lookup("5312345678901234")).containsExactly(0, 2);
+    assertThat(table.lookup("3712345678901234")).containsExactly(0);
+  }
+
+  @Test
+  void whenNoRangeCoversBinThenNoAcquirerReturned() {
+    BinRangeTable table = BinRangeTable.builder()
+        .add("400000-449999", 0)
+        .build();
+
+    assertThat(table.lookup("4499991234567890")).containsExactly(0);
+    assertThat(table.lookup("4500001234567890")).isEmpty();
+    assertThat(table.lookup("3999991234567890")).isEmpty();
+    assertThat(table.lookup("12345")).isEmpty();
+  }
+
+  @Test
+  void whenRangeInvalidThenRejected() {
+    assertThatThrownBy(() -> BinRangeTable.builder().add("55-51", 0))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> BinRangeTable.builder().add("4a", 0))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> BinRangeTable.builder().add("1234567", 0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -0,0 +1,53 @@
+package com.checkout.payment.gateway.stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class PaymentEventRingTest {
+
+  @Test
+  void whenEventPublishedThenReadableAtItsSequence() {
+    PaymentEventRing ring = new PaymentEventRing(4);
+    PostPaymentResponse payment = payment();
+
+    assertThat(ring.get(1)).isNull();
+    ring.publish(payment);
+
+    PaymentEvent event = ring.get(1);
+    assertThat(event.sequence()).isEqualTo(1);
+    assertThat(event.payment()).isSameAs(payment);
+    assertThat(ring.get(2)).isNull();
+    assertThat(ring.nextSequence()).isEqualTo(2);
+  }
+
+  @Test
+  void whenRingWrapsThenOverwrittenSequenceReportsNewerEvent() {
+    PaymentEventRing ring = new PaymentEventRing(4);
+    for (int i = 0; i < 6; i++) {
+      ring.publish(payment());
+    }
+
+    assertThat(ring.oldestSequence()).isEqualTo(3);
+    assertThat(ring.get(1).sequence()).isEqualTo(5);
+    assertThat(ring.get(2).sequence()).isEqualTo(6);
+    assertThat(ring.get(3).sequence()).isEqualTo(3);
+    assertThat(ring.get(7)).isNull();
+  }
+
+  @Test
+  void whenCapacityNotPowerOfTwoThenRejected() {
+    assertThatThrownBy(() -> new PaymentEventRing(3))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static PostPaymentResponse payment() {
+    PostPaymentResponse payment = new PostPaymentResponse();
+    payment.setId(UUID.randomUUID());
+    return payment;
+  }
+}
@@ -0,0 +1,192 @@
+package com.checkout.payment.gateway.stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.checkout.payment.gateway.exception.StreamCapacityException;
+import com.checkout.payment.gateway.exception.StreamCursorExpiredException;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class PaymentEventStreamTest {
+
+  private static final int RING_CAPACITY = 4;
+
+  private final PaymentEventStream stream = new PaymentEventStream(RING_CAPACITY, 2,
+      Duration.ofMinutes(1), Duration.ofMillis(200), 256);
+  private final CountDownLatch stalled = new CountDownLatch(1);
+
+  @AfterEach
+  void shutdown() {
+    stalled.countDown();
+    stream.shutdown();
+  }
+
+  @Test
+  void whenLastEventIdFromAnotherProcessThenExpired() {
+    PaymentEventStream restarted = new PaymentEventStream(RING_CAPACITY, 2,
+        Duration.ofMinutes(1), Duration.ofMillis(200), 256);
+    try {
+      stream.publish(payment());
+      restarted.publish(payment());
+      restarted.publish(payment());
+
+      // Sequence 1 exists in both processes, but only this one sent it.
+      assertThatThrownBy(() -> restarted.subscribe(stream.eventId(1), new TestEmitter(new CountDownLatch(0))))
+          .isInstanceOf(StreamCursorExpiredException.class);
+      assertThatThrownBy(() -> restarted.subscribe("1", new TestEmitter(new CountDownLatch(0))))
+          .isInstanceOf(StreamCursorExpiredException.class);
+      assertThat(restarted.subscriberCount()).isZero();
+    } finally {
+      restarted.shutdown();
+    }
+  }
+
+  @Test
+  void whenSubscribedThenPublishedPaymentsAreSent() {
+    TestEmitter emitter = new TestEmitter(new CountDownLatch(0));
+    stream.subscribe(null, emitter);
+    assertThat(stream.subscriberCount()).isEqualTo(1);
+
+    stream.publish(payment());
+    stream.publish(payment());
+
+    await(() -> emitter.ids.size() == 2);
+    assertThat(emitter.ids).containsExactly(stream.eventId(1), stream.eventId(2));
+  }
+
+  @Test
+  void whenResumedWithLastEventIdThenStartsAfterThatEvent() {
+    for (int i = 0; i < 3; i++) {
+      stream.publish(payment());
+    }
+
+    TestEmitter emitter = new TestEmitter(new CountDownLatch(0));
+    stream.subscribe(stream.eventId(1), emitter);
+
+    await(() -> emitter.ids.size() == 2);
+    assertThat(emitter.ids).containsExactly(stream.eventId(2), stream.eventId(3));
+  }
+
+  @Test
+  void whenLastEventIdNoLongerInRingThenExpired() {
+    for (int i = 0; i < RING_CAPACITY + 2; i++) {
+      stream.publish(payment());
+    }
+
+    assertThatThrownBy(() -> stream.subscribe(stream.eventId(1), new TestEmitter(new CountDownLatch(0))))
+        .isInstanceOf(StreamCursorExpiredException.class);
+    assertThat(stream.subscriberCount()).isZero();
+  }
+
+  @Test
+  void whenSubscriberFallsRingBehindThenDisconnectedOnPublish() {
+    TestEmitter emitter = new TestEmitter(stalled);
+    stream.subscribe(null, emitter);
+
+    // The subscriber's drain gets stuck sending event 1 and never reads the ring again.
+    stream.publish(payment());
+    await(() -> emitter.sending);
+    for (int i = 0; i < RING_CAPACITY; i++) {
+      stream.publish(payment());
+    }
+    assertThat(stream.subscriberCount()).isZero();
+
+    stalled.countDown();
+    await(() -> emitter.completed);
+    assertThat(emitter.ids).containsExactly(stream.eventId(1));
+  }
+
+  @Test
+  void whenSendBlocksLongerThanWriteTimeoutThenInterruptedAndDisconnected() {
+    TestEmitter emitter = new TestEmitter(stalled);
+    stream.subscribe(null, emitter);
+
+    stream.publish(payment());
+
+    await(() -> emitter.completed);
+    assertThat(emitter.interrupted).isTrue();
+    assertThat(emitter.ids).isEmpty();
+    assertThat(stream.subscriberCount()).isZero();
+  }
+
+  @Test
+  void whenOneSubscriberStallsThenOthersStillReceive() {
+    stream.subscribe(null, new TestEmitter(stalled));
+    TestEmitter emitter = new TestEmitter(new CountDownLatch(0));
+    stream.subscribe(null, emitter);
+
+    stream.publish(payment());
+    stream.publish(payment());
+
+    await(() -> emitter.ids.size() == 2);
+    assertThat(emitter.ids).containsExactly(stream.eventId(1), stream.eventId(2));
+  }
+
+  @Test
+  void whenMaxSubscribersConnectedThenRejected() {
+    stream.subscribe(null, new TestEmitter(new CountDownLatch(0)));
+    stream.subscribe(null, new TestEmitter(new CountDownLatch(0)));
+
+    assertThatThrownBy(() -> stream.subscribe(null, new TestEmitter(new CountDownLatch(0))))
+        .isInstanceOf(StreamCapacityException.class);
+    assertThat(stream.subscriberCount()).isEqualTo(2);
+  }
+
+  private static void await(BooleanSupplier condition) {
+    long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+    while (!condition.getAsBoolean()) {
+      assertThat(System.nanoTime()).as("condition not met within 5s").isLessThan(deadline);
+      Thread.onSpinWait();
+    }
+  }
+
+  private static PostPaymentResponse payment() {
+    PostPaymentResponse payment = new PostPaymentResponse();
+    payment.setId(UUID.randomUUID());
+    return payment;
+  }
+
+  /** Records the IDs of sent events; every send first waits for {@code release}. */
+  private static class TestEmitter extends SseEmitter {
+
+    private final List<String> ids = new CopyOnWriteArrayList<>();
+    private final CountDownLatch release;
+    private volatile boolean sending;
+    private volatile boolean interrupted;
+    private volatile boolean completed;
+
+    TestEmitter(CountDownLatch release) {
+      this.release = release;
+    }
+
+    @Override
+    public void send(SseEventBuilder builder) throws IOException {
+      sending = true;
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        interrupted = true;
+        throw new IOException("Send interrupted", e);
+      }
+      // The first item starts with the "id:<sequence>\n" line.
+      String head = (String) builder.build().iterator().next().getData();
+      ids.add(head.substring("id:".length(), head.indexOf('\n')));
+    }
+
+    @Override
+    public void complete() {
+      completed = true;
+    }
+  }
+}
@@ -0,0 +1,92 @@
+package com.checkout.payment.gateway.warmup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.checkout.payment.gateway.model.BankPaymentResponse;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.checkout.payment.gateway.repository.PaymentsRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.web.client.RestTemplate;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class WarmupFilterTest {
+
+  @Autowired
+  private MockMvc mvc;
+  @Autowired
+  private WarmupContext warmupContext;
+  @Autowired
+  private PaymentsRepository paymentsRepository;
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  // The real BankClient, so that the dry-run route is exercised; only the HTTP calls are mocked.
+  @MockBean
+  private RestTemplate restTemplate;
+
+  @Test
+  void whenWarmupTokenMatchesThenPaymentIsNeitherSentToBankNorStored() throws Exception {
+    int stored = paymentsRepository.size();
+
+    mvc.perform(MockMvcRequestBuilders.post("/payment")
+            .header(WarmupContext.TOKEN_HEADER, warmupContext.token())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(buildPaymentRequest())))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.status").value("Authorized"));
+
+    assertThat(paymentsRepository.size()).isEqualTo(stored);
+    verifyNoInteractions(restTemplate);
+  }
+
+  @Test
+  void whenWarmupTokenDoesNotMatchThenPaymentTakesNormalPath() throws Exception {
+    when(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class),
+        eq(BankPaymentResponse.class)))
+        .thenReturn(ResponseEntity.ok(BankPaymentResponse.builder().authorized(true).build()));
+    int stored = paymentsRepository.size();
+
+    mvc.perform(MockMvcRequestBuilders.post("/payment")
+            .header(WarmupContext.TOKEN_HEADER, "0".repeat(warmupContext.token().length()))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(buildPaymentRequest())))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.status").value("Authorized"));
+
+    assertThat(paymentsRepository.size()).isEqualTo(stored + 1);
+    verify(restTemplate).exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class),
+        eq(BankPaymentResponse.class));
+  }
+
+  private PostPaymentRequest buildPaymentRequest() {
+    return PostPaymentRequest.builder()
+        .cardNumber("12345678901235")
+        .expiryMonth(12)
+        .expiryYear(2099)
+        .currency("USD")
+        .amount(1000L)
+        .cvv("123")
+        .build();
+  }
+}
@@ -0,0 +1,77 @@
+package com.checkout.payment.gateway.warmup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.checkout.payment.gateway.repository.PaymentsRepository;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+    "warmup.enabled=true",
+    "warmup.iterations=20",
+    "warmup.concurrency=2"
+})
+class WarmupRunnerTest {
+
+  private static final List<ReadinessState> READINESS_DURING_WARMUP = new CopyOnWriteArrayList<>();
+
+  @LocalManagementPort
+  private int managementPort;
+
+  @Autowired
+  private ApplicationAvailability availability;
+  @Autowired
+  private PaymentsRepository paymentsRepository;
+  @Autowired
+  private TestRestTemplate restTemplate;
+
+  @Test
+  void whenWarmupRunsThenReadinessRefusesTrafficUntilItReturns() {
+    assertThat(READINESS_DURING_WARMUP).hasSize(20).containsOnly(ReadinessState.REFUSING_TRAFFIC);
+    assertThat(paymentsRepository.size()).isZero();
+
+    assertThat(availability.getReadinessState()).isEqualTo(ReadinessState.ACCEPTING_TRAFFIC);
+    ResponseEntity<String> readiness = restTemplate.getForEntity(
+        "http://localhost:" + managementPort + "/actuator/health/readiness", String.class);
+    assertThat(readiness.getStatusCode()).isEqualTo(HttpStatus.OK);
+  }
+
+  @TestConfiguration
+  static class ReadinessRecorder {
+
+    /** Records the readiness state seen by every synthetic payment as it arrives. */
+    @Bean
+    OncePerRequestFilter readinessRecorder(ApplicationAvailability availability) {
+      return new OncePerRequestFilter() {
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+          if (request.getHeader(WarmupContext.TOKEN_HEADER) != null) {
+            READINESS_DURING_WARMUP.add(availability.getReadinessState());
+          }
+          filterChain.doFilter(request, response);
+        }
+      };
+    }
+  }
+}
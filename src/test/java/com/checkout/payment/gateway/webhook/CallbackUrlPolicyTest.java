@@ -0,0 +1,68 @@
+package com.checkout.payment.gateway.webhook;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.checkout.payment.gateway.exception.CallbackUrlNotAllowedException;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class CallbackUrlPolicyTest {
+
+  private final CallbackUrlPolicy policy = new CallbackUrlPolicy(false, Set.of());
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "http://localhost:8091/actuator/recordings",
+      "http://127.0.0.1/callback",
+      "http://10.0.0.5/callback",
+      "http://172.16.3.4/callback",
+      "https://192.168.1.10/callback",
+      "http://169.254.169.254/latest/meta-data",
+      "http://100.64.0.1/callback",
+      "http://0.0.0.0/callback",
+      "http://[::1]/callback",
+      "http://[fd00::1]/callback",
+      "http://[fe80::1]/callback",
+      "http://[::ffff:127.0.0.1]/callback"
+  })
+  void whenCallbackTargetsInternalAddressThenNotAllowed(String url) {
+    assertThatThrownBy(() -> policy.check(url)).isInstanceOf(CallbackUrlNotAllowedException.class);
+  }
+
+  @Test
+  void whenCallbackTargetsPublicAddressThenAllowed() {
+    assertThatCode(() -> policy.check("https://93.184.216.34/callback")).doesNotThrowAnyException();
+    assertThatCode(() -> policy.check("http://[2606:2800:220:1::248]/callback")).doesNotThrowAnyException();
+  }
+
+  @Test
+  void whenResolvingForConnectionThenOnlyPublicAddressesReturned() throws UnknownHostException {
+    assertThat(policy.resolve("93.184.216.34")).containsExactly(InetAddress.getByName("93.184.216.34"));
+    assertThatThrownBy(() -> policy.resolve("127.0.0.1")).isInstanceOf(UnknownHostException.class);
+    assertThatThrownBy(() -> policy.resolve("localhost")).isInstanceOf(UnknownHostException.class);
+  }
+
+  @Test
+  void whenCallbackIsNotHttpThenNotAllowed() {
+    assertThatThrownBy(() -> policy.check("ftp://93.184.216.34/callback"))
+        .isInstanceOf(CallbackUrlNotAllowedException.class);
+    assertThatThrownBy(() -> policy.check("file:///etc/passwd"))
+        .isInstanceOf(CallbackUrlNotAllowedException.class);
+  }
+
+  @Test
+  void whenAllowedHostsConfiguredThenOtherHostsNotAllowed() {
+    CallbackUrlPolicy allowlist = new CallbackUrlPolicy(true, Set.of("Merchant.example.com"));
+
+    assertThatCode(() -> allowlist.check("https://merchant.example.com/callback")).doesNotThrowAnyException();
+    assertThatThrownBy(() -> allowlist.check("https://other.example.com/callback"))
+        .isInstanceOf(CallbackUrlNotAllowedException.class);
+  }
+}
@@ -0,0 +1,165 @@
+package com.checkout.payment.gateway.webhook;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class WebhookDispatcherTest {
+
+  private static final Duration NEVER = Duration.ofHours(1);
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final List<Delivery> deliveries = new CopyOnWriteArrayList<>();
+  private final AtomicInteger failuresLeft = new AtomicInteger();
+  private final List<WebhookDispatcher> dispatchers = new ArrayList<>();
+  private HttpServer receiver;
+
+  @BeforeEach
+  void startReceiver() throws IOException {
+    receiver = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    receiver.createContext("/", exchange -> {
+      PostPaymentResponse[] batch = objectMapper.readValue(exchange.getRequestBody().readAllBytes(),
+          PostPaymentResponse[].class);
+      deliveries.add(new Delivery(exchange.getRequestURI().getPath(), batch.length, System.nanoTime(),
+          exchange.getRequestHeaders().getFirst(WebhookDispatcher.SIGNATURE_HEADER)));
+      exchange.sendResponseHeaders(failuresLeft.getAndDecrement() > 0 ? 503 : 204, -1);
+      exchange.close();
+    });
+    receiver.start();
+  }
+
+  @AfterEach
+  void stop() throws InterruptedException {
+    for (WebhookDispatcher dispatcher : dispatchers) {
+      dispatcher.shutdown();
+    }
+    receiver.stop(0);
+  }
+
+  @Test
+  void whenPaymentsQueuedThenDeliveredInBatchesPerEndpoint() {
+    WebhookDispatcher dispatcher = dispatcher(100, 3, 1, Duration.ofMillis(10));
+    for (int i = 0; i < 7; i++) {
+      assertThat(dispatcher.enqueue(url("/a"), payment())).isTrue();
+    }
+    for (int i = 0; i < 2; i++) {
+      assertThat(dispatcher.enqueue(url("/b"), payment())).isTrue();
+    }
+
+    dispatcher.flush();
+
+    await(() -> deliveries.size() == 4);
+    assertThat(batchSizes("/a")).containsExactlyInAnyOrder(3, 3, 1);
+    assertThat(batchSizes("/b")).containsExactly(2);
+    assertThat(deliveries).allSatisfy(delivery -> assertThat(delivery.signature()).matches("t=\\d+,v1=[0-9a-f]{64}"));
+  }
+
+  @Test
+  void whenDeliveryFailsThenRetriedWithBackoff() {
+    failuresLeft.set(2);
+    WebhookDispatcher dispatcher = dispatcher(100, 50, 5, Duration.ofMillis(100));
+    dispatcher.enqueue(url("/a"), payment());
+
+    dispatcher.flush();
+
+    await(() -> deliveries.size() == 3);
+    assertThat(Duration.ofNanos(deliveries.get(1).receivedAt() - deliveries.get(0).receivedAt()))
+        .isGreaterThanOrEqualTo(Duration.ofMillis(100));
+    assertThat(Duration.ofNanos(deliveries.get(2).receivedAt() - deliveries.get(1).receivedAt()))
+        .isGreaterThanOrEqualTo(Duration.ofMillis(200));
+    sleep(Duration.ofMillis(500));
+    assertThat(deliveries).hasSize(3);
+  }
+
+  @Test
+  void whenAttemptsExhaustedThenDroppedAndOutboxSpaceReleased() {
+    failuresLeft.set(Integer.MAX_VALUE);
+    WebhookDispatcher dispatcher = dispatcher(2, 50, 3, Duration.ofMillis(200));
+    assertThat(dispatcher.enqueue(url("/a"), payment())).isTrue();
+    assertThat(dispatcher.enqueue(url("/a"), payment())).isTrue();
+
+    // Payments count against the capacity until they are delivered or dropped.
+    assertThat(dispatcher.enqueue(url("/a"), payment())).isFalse();
+    dispatcher.flush();
+    await(() -> deliveries.size() == 1);
+    assertThat(dispatcher.enqueue(url("/a"), payment())).isFalse();
+
+    await(() -> dispatcher.enqueue(url("/b"), payment()));
+    assertThat(batchSizes("/a")).containsExactly(2, 2, 2);
+  }
+
+  @Test
+  void whenCallbackTargetsInternalAddressThenDroppedWithoutDelivery() {
+    WebhookDispatcher dispatcher = new WebhookDispatcher(objectMapper, new CallbackUrlPolicy(false, Set.of()),
+        "test-secret", 1, 50, 5, Duration.ofMillis(10), Duration.ofSeconds(1), NEVER, 2,
+        Duration.ofSeconds(1), Duration.ofSeconds(1));
+    dispatchers.add(dispatcher);
+    assertThat(dispatcher.enqueue(url("/a"), payment())).isTrue();
+
+    dispatcher.flush();
+
+    await(() -> dispatcher.enqueue(url("/a"), payment()));
+    assertThat(deliveries).isEmpty();
+  }
+
+  private WebhookDispatcher dispatcher(int capacity, int batchSize, int maxAttempts, Duration initialBackoff) {
+    WebhookDispatcher dispatcher = new WebhookDispatcher(objectMapper, new CallbackUrlPolicy(true, Set.of()),
+        "test-secret", capacity, batchSize, maxAttempts, initialBackoff, Duration.ofSeconds(1), NEVER, 4,
+        Duration.ofSeconds(1), Duration.ofSeconds(1));
+    dispatchers.add(dispatcher);
+    return dispatcher;
+  }
+
+  private String url(String path) {
+    return "http://localhost:" + receiver.getAddress().getPort() + path;
+  }
+
+  private List<Integer> batchSizes(String path) {
+    return deliveries.stream()
+        .filter(delivery -> delivery.path().equals(path))
+        .map(Delivery::size)
+        .toList();
+  }
+
+  private static PostPaymentResponse payment() {
+    PostPaymentResponse payment = new PostPaymentResponse();
+    payment.setId(UUID.randomUUID());
+    return payment;
+  }
+
+  private static void await(BooleanSupplier condition) {
+    long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+    while (!condition.getAsBoolean()) {
+      assertThat(System.nanoTime()).as("condition not met within 5s").isLessThan(deadline);
+      sleep(Duration.ofMillis(10));
+    }
+  }
+
+  private static void sleep(Duration duration) {
+    try {
+      Thread.sleep(duration.toMillis());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private record Delivery(String path, int size, long receivedAt, String signature) {
+  }
+}